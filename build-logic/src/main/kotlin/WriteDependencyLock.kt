@@ -0,0 +1,70 @@
+import java.security.MessageDigest
+import org.gradle.api.DefaultTask
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.artifacts.result.ResolvedArtifactResult
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.provider.ListProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.provider.SetProperty
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+
+/**
+ * Writes the exact coordinates, file names and SHA-256 checksums of the
+ * dependencies downloaded at runtime, so `SimpleDependencyResolver` can
+ * verify an already populated cache without resolving anything.
+ */
+@CacheableTask
+abstract class WriteDependencyLock : DefaultTask() {
+
+    @get:Internal
+    abstract val artifacts: SetProperty<ResolvedArtifactResult>
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val artifactFiles: ConfigurableFileCollection
+
+    @get:Input
+    abstract val repositories: ListProperty<String>
+
+    @get:Input
+    abstract val fileName: Property<String>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    init {
+        fileName.convention("dependencies.lock")
+    }
+
+    @TaskAction
+    fun write() {
+        val lines = mutableListOf("# Generated by the $name task, do not edit.")
+        repositories.get().mapTo(lines) { "repository $it" }
+
+        artifacts.get()
+            .mapNotNull { artifact ->
+                val id = artifact.id.componentIdentifier as? ModuleComponentIdentifier ?: return@mapNotNull null
+                val file = artifact.file
+                val classifier = file.nameWithoutExtension.removePrefix("${id.module}-${id.version}").removePrefix("-")
+                val coordinates = listOf(id.group, id.module, id.version, classifier).filter { it.isNotEmpty() }.joinToString(":")
+                "dependency $coordinates ${file.name} ${sha256(file.readBytes())}"
+            }
+            .sorted()
+            .toCollection(lines)
+
+        val output = outputDir.get().file(fileName.get()).asFile
+        output.parentFile.mkdirs()
+        output.writeText(lines.joinToString("\n", postfix = "\n"))
+    }
+
+    private fun sha256(bytes: ByteArray): String =
+        MessageDigest.getInstance("SHA-256").digest(bytes).joinToString("") { "%02x".format(it) }
+}
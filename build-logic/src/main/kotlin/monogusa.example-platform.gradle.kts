@@ -4,6 +4,18 @@ plugins {
     id("com.gradleup.shadow")
 }
 
+val runtimeDownload = configurations.named("runtimeDownload")
+val writeDependencyLock = tasks.register<WriteDependencyLock>("writeDependencyLock") {
+    artifacts.set(runtimeDownload.flatMap { it.incoming.artifacts.resolvedArtifacts })
+    artifactFiles.from(runtimeDownload.map { it.incoming.artifacts.artifactFiles })
+    repositories.set(tasks.writeDependencies.flatMap { it.repos })
+    outputDir.set(layout.buildDirectory.dir("generated/dependency-lock"))
+}
+
+sourceSets.main {
+    resources.srcDir(writeDependencyLock)
+}
+
 tasks {
     build {
         dependsOn(shadowJar)
@@ -0,0 +1,32 @@
+plugins {
+    id("monogusa.base")
+    alias(libs.plugins.jmh)
+}
+
+val projectVersion: String by project
+version = projectVersion
+
+dependencies {
+    jmh(projects.monogusa)
+    jmh(libs.configurate.hocon) {
+        exclude("net.kyori", "option")
+    }
+    jmh(libs.adventure.api)
+    jmh(libs.adventure.minimessage)
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    // Forward e.g. -Pjmh.includes=Holder to run a subset.
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
+indraSpotlessLicenser {
+    property("name", "monogusa")
+    property("author", "Namiu (うにたろう)")
+    property("contributors", "")
+}
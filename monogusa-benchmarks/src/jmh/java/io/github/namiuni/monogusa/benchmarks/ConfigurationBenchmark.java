@@ -0,0 +1,200 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.benchmarks;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import io.github.namiuni.monogusa.configuration.LazySection;
+import io.github.namiuni.monogusa.configuration.ReloadableConfiguration;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import net.kyori.adventure.serializer.configurate4.ConfigurateComponentSerializer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.configurate.hocon.HoconConfigurationLoader;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+
+/**
+ * Measures creating and reloading a {@link ReloadableConfiguration} holder for
+ * HOCON files of different sizes whose messages are deserialized to {@link Component}s,
+ * either eagerly or through a {@link LazySection} that is never read. The
+ * {@code reloadEdited} benchmarks change a single message before each reload,
+ * with and without {@linkplain ReloadableConfiguration.ILoadable#structuralSharing() structural sharing}.
+ */
+@NullMarked
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationBenchmark {
+
+    @Param({"small", "medium", "large"})
+    private String size;
+
+    @Param({"false", "true"})
+    private boolean snapshotCache;
+
+    private @SuppressWarnings("NotNullFieldNotInitialized") Path directory;
+    private @SuppressWarnings("NotNullFieldNotInitialized") Path file;
+    private @SuppressWarnings("NotNullFieldNotInitialized") ReloadableHolder<MessagesConfig> holder;
+    private @SuppressWarnings("NotNullFieldNotInitialized") ReloadableHolder<LazyMessagesConfig> lazyHolder;
+    private @SuppressWarnings("NotNullFieldNotInitialized") ReloadableHolder<MessagesConfig> sharedHolder;
+    private @SuppressWarnings("NotNullFieldNotInitialized") byte[][] versions;
+    private int edits;
+
+    @Setup
+    public void setup() throws IOException {
+        final int messages = switch (this.size) {
+            case "small" -> 10;
+            case "medium" -> 1_000;
+            case "large" -> 50_000;
+            default -> throw new IllegalArgumentException(this.size);
+        };
+
+        this.directory = Files.createTempDirectory("monogusa-benchmark");
+        this.file = this.directory.resolve("messages.conf");
+        final StringBuilder hocon = new StringBuilder("messages {\n");
+        for (int i = 0; i < messages; i++) {
+            hocon.append("  message-").append(i).append(" {\n")
+                    .append("    text = \"<gradient:#ff0000:#0000ff>Message <b>").append(i).append("</b></gradient>\"\n")
+                    .append("    lore = [\"<gray>First line\", \"<italic>Second line <red>").append(i).append("\"]\n")
+                    .append("    priority = ").append(i % 10).append('\n')
+                    .append("  }\n");
+        }
+        hocon.append("}\n");
+        Files.writeString(this.file, hocon);
+        final String original = hocon.toString();
+        this.versions = new byte[][] {
+                original.getBytes(StandardCharsets.UTF_8),
+                original.replaceFirst("priority = 0", "priority = 10").getBytes(StandardCharsets.UTF_8),
+        };
+
+        this.holder = this.builder(MessagesConfig.class).create();
+        this.lazyHolder = this.builder(LazyMessagesConfig.class).create();
+        this.sharedHolder = this.builder(MessagesConfig.class).structuralSharing().create();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ReloadableConfiguration.shutdown();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (final Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Benchmark
+    public ReloadableHolder<MessagesConfig> create() {
+        return this.builder(MessagesConfig.class).create();
+    }
+
+    @Benchmark
+    public MessagesConfig reload() {
+        this.holder.reload();
+        return this.holder.get();
+    }
+
+    @Benchmark
+    public LazyMessagesConfig reloadLazy() {
+        this.lazyHolder.reload();
+        return this.lazyHolder.get();
+    }
+
+    @Benchmark
+    public MessagesConfig reloadEdited() throws IOException {
+        this.edit();
+        this.holder.reload();
+        return this.holder.get();
+    }
+
+    @Benchmark
+    public MessagesConfig reloadEditedShared() throws IOException {
+        this.edit();
+        this.sharedHolder.reload();
+        return this.sharedHolder.get();
+    }
+
+    private void edit() throws IOException {
+        Files.write(this.file, this.versions[this.edits++ & 1]);
+    }
+
+    private <C> ReloadableConfiguration.ILoadable<C> builder(final Class<C> type) {
+        final HoconConfigurationLoader loader = HoconConfigurationLoader.builder()
+                .defaultOptions(options -> options.serializers(builder -> builder
+                        .registerAll(LazySection.serializers())
+                        .registerAll(ConfigurateComponentSerializer.builder()
+                                .scalarSerializer(MiniMessage.miniMessage())
+                                .build()
+                                .serializers())))
+                .path(this.file)
+                .build();
+        final ReloadableConfiguration.ILoadable<C> builder = ReloadableConfiguration.builder()
+                .loader(loader)
+                .raw(type)
+                .path(this.file);
+        return this.snapshotCache ? builder.snapshotCache() : builder;
+    }
+
+    @ConfigSerializable
+    public static final class MessagesConfig {
+
+        private Map<String, Message> messages = Map.of();
+
+        public Map<String, Message> messages() {
+            return this.messages;
+        }
+    }
+
+    @ConfigSerializable
+    public static final class LazyMessagesConfig {
+
+        private LazySection<Map<String, Message>> messages = LazySection.of(Map.of());
+
+        public LazySection<Map<String, Message>> messages() {
+            return this.messages;
+        }
+    }
+
+    @ConfigSerializable
+    public record Message(Component text, List<Component> lore, int priority) {
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.benchmarks;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading a flag and a threshold in a loop through {@link ReloadableHolder#get()}
+ * and through {@link ReloadableHolder#constant(Class, java.util.function.Function) constant handles}.
+ */
+@NullMarked
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstantBenchmark {
+
+    private static final int ENTITIES = 1_000;
+    private static final ReloadableHolder<Settings> HOLDER = ReloadableHolder.simple(() -> new Settings(true, 16));
+    private static final MethodHandle ENABLED = HOLDER.constant(boolean.class, Settings::enabled).handle();
+    private static final MethodHandle THRESHOLD = HOLDER.constant(int.class, Settings::threshold).handle();
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public int supplier() {
+        int matches = 0;
+        for (int entity = 0; entity < ENTITIES; entity++) {
+            final Settings settings = HOLDER.get();
+            if (settings.enabled() && entity % 32 < settings.threshold()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public int constant() throws Throwable {
+        int matches = 0;
+        for (int entity = 0; entity < ENTITIES; entity++) {
+            if ((boolean) ENABLED.invokeExact() && entity % 32 < (int) THRESHOLD.invokeExact()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    public record Settings(boolean enabled, int threshold) {
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.benchmarks;
+
+import io.github.namiuni.monogusa.dipendency.ResolverSettings;
+import io.github.namiuni.monogusa.dipendency.SimpleDependencyResolver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SimpleDependencyResolver#resolve(Path, String, String, ResolverSettings)}
+ * when every jar of {@code benchmark-dependencies.lock} is already cached.
+ *
+ * <p>The setup lays the jars out in the cache as a previous download from a
+ * Maven repository would have, so no repository is ever contacted.</p>
+ */
+@NullMarked
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyBenchmark {
+
+    private static final String DEPENDENCIES = "benchmark-dependencies.txt";
+    private static final int JARS = 20;
+    private static final int JAR_SIZE = 256 * 1024;
+
+    private @SuppressWarnings("NotNullFieldNotInitialized") Path cache;
+
+    @Setup
+    public void setup() throws IOException {
+        this.cache = Files.createTempDirectory("monogusa-benchmark-cache");
+        for (int i = 0; i < JARS; i++) {
+            final Path jar = this.cache.resolve("io/github/namiuni/benchmark/library-%d/1.0/library-%d-1.0.jar".formatted(i, i));
+            Files.createDirectories(jar.getParent());
+            Files.write(jar, DependencyBenchmark.jar(i));
+        }
+        // The first resolution verifies the checksums and indexes the cache.
+        SimpleDependencyResolver.resolve(this.cache, DEPENDENCIES, "benchmark", ResolverSettings.defaults());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.cache)) {
+            for (final Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<Path> warmCache() {
+        return SimpleDependencyResolver.resolve(this.cache, DEPENDENCIES, "benchmark", ResolverSettings.defaults());
+    }
+
+    private static byte[] jar(final int index) {
+        final byte[] content = new byte[JAR_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ((index * 31 + i) % 251);
+        }
+        return content;
+    }
+}
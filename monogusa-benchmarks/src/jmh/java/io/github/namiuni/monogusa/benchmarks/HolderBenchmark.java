@@ -0,0 +1,79 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.benchmarks;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ReloadableHolder#get()} alone and while another thread keeps reloading.
+ */
+@NullMarked
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HolderBenchmark {
+
+    private @SuppressWarnings("NotNullFieldNotInitialized") ReloadableHolder<Settings> holder;
+
+    @Setup
+    public void setup() {
+        this.holder = ReloadableHolder.simple(() -> new Settings("value", 42));
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    public Settings get() {
+        return this.holder.get();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Settings contendedGet() {
+        return this.holder.get();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void contendedReload() {
+        this.holder.reload();
+    }
+
+    public record Settings(String name, int value) {
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks of the monogusa hot paths.
+ */
+package io.github.namiuni.monogusa.benchmarks;
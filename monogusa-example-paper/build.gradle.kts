@@ -9,6 +9,7 @@ plugins {
 
 dependencies {
     implementation(projects.monogusa)
+    annotationProcessor(projects.monogusaProcessor)
     implementation(libs.configurate.hocon) {
         exclude("net.kyori", "option")
     }
@@ -25,6 +25,8 @@ import io.github.namiuni.monogusa.example.paper.configurations.PrimaryConfig;
 import io.papermc.paper.plugin.bootstrap.BootstrapContext;
 import io.papermc.paper.plugin.bootstrap.PluginBootstrap;
 import io.papermc.paper.plugin.bootstrap.PluginProviderContext;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Objects;
 import net.kyori.adventure.serializer.configurate4.ConfigurateComponentSerializer;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -51,6 +53,8 @@ public final class ExampleBootstrap implements PluginBootstrap {
     }
 
     private void initializeConfiguration(final BootstrapContext context) {
+        final Path configPath = context.getDataDirectory().resolve("config.conf");
+
         // Create ConfigurationLoader instance.
         final HoconConfigurationLoader configurationLoader = HoconConfigurationLoader.builder()
                 .defaultOptions(options -> options
@@ -63,13 +67,15 @@ public final class ExampleBootstrap implements PluginBootstrap {
                                     .serializers();
                             builder.registerAll(adventureSerializer);
                         }))
-                .path(context.getDataDirectory().resolve("config.conf"))
+                .path(configPath)
                 .build();
 
         // Create ReloadableHolder instance.
         this.configHolder = ReloadableConfiguration.builder()
                 .loader(configurationLoader)
                 .raw(PrimaryConfig.class)
+                .path(configPath)
+                .watch(Duration.ofSeconds(1))
                 .create();
     }
 }
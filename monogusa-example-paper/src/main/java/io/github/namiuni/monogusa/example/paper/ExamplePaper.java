@@ -19,6 +19,7 @@
  */
 package io.github.namiuni.monogusa.example.paper;
 
+import io.github.namiuni.monogusa.configuration.ReloadableConfiguration;
 import io.github.namiuni.monogusa.example.paper.configurations.PrimaryConfig;
 import java.util.function.Supplier;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -39,4 +40,10 @@ public final class ExamplePaper extends JavaPlugin {
     public void onEnable() {
         super.onEnable(); // TODO: Register listeners
     }
+
+    @Override
+    public void onDisable() {
+        // Stop the shared watcher so that its thread does not outlive the plugin.
+        ReloadableConfiguration.shutdown();
+    }
 }
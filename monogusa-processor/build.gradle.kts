@@ -0,0 +1,19 @@
+plugins {
+    id("monogusa.base")
+}
+
+val projectVersion: String by project
+version = projectVersion
+
+dependencies {
+    // Configurate, used to name nodes exactly like the reflective object mapper does
+    implementation(libs.configurate.core) {
+        exclude("net.kyori", "option")
+    }
+}
+
+indraSpotlessLicenser {
+    property("name", "monogusa")
+    property("author", "Namiu (うにたろう)")
+    property("contributors", "")
+}
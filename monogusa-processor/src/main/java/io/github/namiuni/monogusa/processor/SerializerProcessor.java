@@ -0,0 +1,523 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import org.spongepowered.configurate.util.NamingSchemes;
+
+/**
+ * Generates a {@code TypeSerializer} for every {@code @ConfigSerializable} class,
+ * reading and writing fields directly instead of through Configurate's
+ * reflective object mapper.
+ *
+ * <p>For a class {@code com.example.Foo} the serializer is generated as
+ * {@code com.example.Foo_MonogusaSerializer}. Nodes are named with the
+ * {@link NamingSchemes#LOWER_CASE_DASHED} scheme used by the default object
+ * mapper, and {@code @Setting} and {@code @Comment} are honoured. Classes
+ * using any other object mapping feature, such as constraints or
+ * {@code @Setting(nodeFromParent = true)}, and classes extending anything
+ * but {@code Object}, whose inherited fields the object mapper also maps,
+ * are skipped and keep being handled reflectively.</p>
+ */
+@SupportedAnnotationTypes(SerializerProcessor.CONFIG_SERIALIZABLE)
+public final class SerializerProcessor extends AbstractProcessor {
+
+    static final String CONFIG_SERIALIZABLE = "org.spongepowered.configurate.objectmapping.ConfigSerializable";
+    static final String SUFFIX = "_MonogusaSerializer";
+
+    private static final String SETTING = "org.spongepowered.configurate.objectmapping.meta.Setting";
+    private static final String COMMENT = "org.spongepowered.configurate.objectmapping.meta.Comment";
+    private static final String CONFIGURATE_PACKAGE = "org.spongepowered.configurate";
+
+    private final Map<TypeElement, List<Property>> properties = new HashMap<>();
+    private final Set<TypeElement> unsupported = new HashSet<>();
+    private final Set<TypeElement> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final List<TypeElement> types = new ArrayList<>();
+        for (final TypeElement annotation : annotations) {
+            types.addAll(ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)));
+        }
+        this.generated.addAll(types);
+
+        for (final TypeElement type : types) {
+            final List<Property> properties = this.properties(type);
+            if (properties != null) {
+                this.generate(type, properties);
+            } else {
+                this.generated.remove(type);
+            }
+        }
+        return false;
+    }
+
+    private List<Property> properties(final TypeElement type) {
+        if (this.unsupported.contains(type)) {
+            return null;
+        }
+        final List<Property> known = this.properties.get(type);
+        if (known != null) {
+            return known;
+        }
+
+        // Registered before inspecting the members so that self-referencing types terminate.
+        final List<Property> properties = new ArrayList<>();
+        this.properties.put(type, properties);
+        if (!this.collectProperties(type, properties)) {
+            this.properties.remove(type);
+            this.unsupported.add(type);
+            return null;
+        }
+        return properties;
+    }
+
+    private boolean collectProperties(final TypeElement type, final List<Property> properties) {
+        if (!this.supportedType(type)) {
+            return false;
+        }
+
+        if (type.getKind() == ElementKind.RECORD) {
+            for (final RecordComponentElement component : type.getRecordComponents()) {
+                final Property property = this.property(type, component, component.getSimpleName().toString(), component.asType());
+                if (property == null) {
+                    return false;
+                }
+                properties.add(property);
+            }
+            return true;
+        }
+
+        for (final VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (modifiers.contains(Modifier.FINAL)) {
+                this.skip(type, "final field " + field.getSimpleName());
+                return false;
+            }
+            final Property property = this.property(type, field, field.getSimpleName().toString(), field.asType());
+            if (property == null) {
+                return false;
+            }
+            properties.add(property);
+        }
+        return true;
+    }
+
+    private boolean supportedType(final TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            this.skip(type, "not a class or record");
+            return false;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            this.skip(type, "generic type");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            this.skip(type, "abstract type");
+            return false;
+        }
+
+        Element current = type;
+        while (current instanceof final TypeElement element) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)
+                    || element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)
+                    || element.getNestingKind() == NestingKind.LOCAL
+                    || element.getNestingKind() == NestingKind.ANONYMOUS) {
+                this.skip(type, "not accessible from its package");
+                return false;
+            }
+            current = element.getEnclosingElement();
+        }
+
+        if (type.getKind() == ElementKind.CLASS) {
+            // The object mapper also maps inherited fields, which may not be accessible from the generated class.
+            if (type.getSuperclass() instanceof final DeclaredType superclass
+                    && !((TypeElement) superclass.asElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+                this.skip(type, "extends " + superclass);
+                return false;
+            }
+            final boolean constructible = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                    .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+            if (!constructible) {
+                this.skip(type, "no accessible no-argument constructor");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Property property(final TypeElement owner, final Element element, final String name, final TypeMirror type) {
+        final String typeName = this.typeName(type);
+        if (typeName == null) {
+            this.skip(owner, "unsupported type of " + name);
+            return null;
+        }
+
+        String key = NamingSchemes.LOWER_CASE_DASHED.coerce(name);
+        String comment = null;
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final String annotation = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            switch (annotation) {
+                case SETTING -> {
+                    if (Boolean.TRUE.equals(SerializerProcessor.annotationValue(mirror, "nodeFromParent"))) {
+                        this.skip(owner, "@Setting(nodeFromParent = true) on " + name);
+                        return null;
+                    }
+                    final Object value = SerializerProcessor.annotationValue(mirror, "value");
+                    if (value instanceof final String setting && !setting.isEmpty()) {
+                        key = setting;
+                    }
+                }
+                case COMMENT -> comment = (String) SerializerProcessor.annotationValue(mirror, "value");
+                default -> {
+                    if (annotation.startsWith(CONFIGURATE_PACKAGE)) {
+                        this.skip(owner, "@" + annotation + " on " + name);
+                        return null;
+                    }
+                }
+            }
+        }
+
+        final TypeElement nested = this.generatedNested(type);
+        return new Property(name, key, comment, typeName, this.boxedName(type), type.getKind().isPrimitive(),
+                element.getModifiers().contains(Modifier.PRIVATE), nested == null ? null : SerializerProcessor.serializerName(nested));
+    }
+
+    private TypeElement generatedNested(final TypeMirror type) {
+        // Only types generated by this compilation are called directly, others go through the node's serializers.
+        if (type instanceof final DeclaredType declared && declared.asElement() instanceof final TypeElement element
+                && this.generated.contains(element)) {
+            return this.properties(element) != null ? element : null;
+        }
+        return null;
+    }
+
+    private String typeName(final TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE -> type.getKind().name().toLowerCase(Locale.ROOT);
+            case ARRAY -> {
+                final String component = this.typeName(((ArrayType) type).getComponentType());
+                yield component == null ? null : component + "[]";
+            }
+            case DECLARED -> {
+                final DeclaredType declared = (DeclaredType) type;
+                final StringBuilder builder = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                if (!declared.getTypeArguments().isEmpty()) {
+                    builder.append('<');
+                    for (int i = 0; i < declared.getTypeArguments().size(); i++) {
+                        final String argument = this.typeName(declared.getTypeArguments().get(i));
+                        if (argument == null) {
+                            yield null;
+                        }
+                        builder.append(i == 0 ? "" : ", ").append(argument);
+                    }
+                    builder.append('>');
+                }
+                yield builder.toString();
+            }
+            case WILDCARD -> {
+                final WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    final String bound = this.typeName(wildcard.getExtendsBound());
+                    yield bound == null ? null : "? extends " + bound;
+                }
+                if (wildcard.getSuperBound() != null) {
+                    final String bound = this.typeName(wildcard.getSuperBound());
+                    yield bound == null ? null : "? super " + bound;
+                }
+                yield "?";
+            }
+            default -> null;
+        };
+    }
+
+    private String boxedName(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return this.typeName(type);
+    }
+
+    private void generate(final TypeElement type, final List<Property> properties) {
+        final PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.getQualifiedName().toString();
+        final String simpleName = SerializerProcessor.serializerName(type);
+        final String typeName = type.getQualifiedName().toString();
+        final boolean isRecord = type.getKind() == ElementKind.RECORD;
+
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(SerializerProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"cast\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements org.spongepowered.configurate.serialize.TypeSerializer<").append(typeName).append("> {\n\n")
+                .append("    public static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n");
+
+        for (int i = 0; i < properties.size(); i++) {
+            final Property property = properties.get(i);
+            source.append("    private static final java.lang.reflect.Type TYPE_").append(i)
+                    .append(" = new io.leangen.geantyref.TypeToken<").append(property.boxedType()).append(">() { }.getType();\n");
+        }
+
+        final boolean handles = !isRecord && properties.stream().anyMatch(Property::inaccessible);
+        if (handles) {
+            for (int i = 0; i < properties.size(); i++) {
+                if (properties.get(i).inaccessible()) {
+                    source.append("    private static final java.lang.invoke.VarHandle FIELD_").append(i).append(";\n");
+                }
+            }
+            source.append("\n    static {\n")
+                    .append("        try {\n")
+                    .append("            final java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.privateLookupIn(")
+                    .append(typeName).append(".class, java.lang.invoke.MethodHandles.lookup());\n");
+            for (int i = 0; i < properties.size(); i++) {
+                final Property property = properties.get(i);
+                if (property.inaccessible()) {
+                    source.append("            FIELD_").append(i).append(" = lookup.findVarHandle(").append(typeName).append(".class, \"")
+                            .append(property.name()).append("\", ").append(SerializerProcessor.erasure(property.type())).append(".class);\n");
+                }
+            }
+            source.append("        } catch (final ReflectiveOperationException exception) {\n")
+                    .append("            throw new ExceptionInInitializerError(exception);\n")
+                    .append("        }\n")
+                    .append("    }\n");
+        }
+
+        // deserialize
+        source.append("\n    @Override\n")
+                .append("    public ").append(typeName).append(" deserialize(final java.lang.reflect.Type type, final org.spongepowered.configurate.ConfigurationNode node)")
+                .append(" throws org.spongepowered.configurate.serialize.SerializationException {\n")
+                .append("        if (!node.isMap() && !node.empty()) {\n")
+                .append("            throw new org.spongepowered.configurate.serialize.SerializationException(node, type, \"Expected a map\");\n")
+                .append("        }\n");
+        if (isRecord) {
+            for (int i = 0; i < properties.size(); i++) {
+                final Property property = properties.get(i);
+                source.append("        final ").append(property.boxedType()).append(" value").append(i).append(" = ")
+                        .append(SerializerProcessor.read(property, i, "node.node(\"" + SerializerProcessor.escape(property.key()) + "\")"))
+                        .append(";\n");
+            }
+            source.append("        return new ").append(typeName).append("(");
+            for (int i = 0; i < properties.size(); i++) {
+                final Property property = properties.get(i);
+                source.append(i == 0 ? "" : ", ");
+                if (property.primitive()) {
+                    source.append("value").append(i).append(" == null ? ").append(SerializerProcessor.zero(property.type())).append(" : value").append(i);
+                } else {
+                    source.append("value").append(i);
+                }
+            }
+            source.append(");\n");
+        } else {
+            source.append("        final ").append(typeName).append(" instance = new ").append(typeName).append("();\n")
+                    .append("        final boolean copyDefaults = node.options().shouldCopyDefaults();\n");
+            for (int i = 0; i < properties.size(); i++) {
+                final Property property = properties.get(i);
+                source.append("        {\n")
+                        .append("            final org.spongepowered.configurate.ConfigurationNode child = node.node(\"")
+                        .append(SerializerProcessor.escape(property.key())).append("\");\n")
+                        .append("            if (!child.isNull()) {\n")
+                        .append("                final ").append(property.boxedType()).append(" value = ").append(SerializerProcessor.read(property, i, "child")).append(";\n")
+                        .append("                if (value != null) {\n")
+                        .append("                    ").append(SerializerProcessor.write(property, i, "value")).append(";\n")
+                        .append("                }\n")
+                        .append("            } else if (copyDefaults) {\n")
+                        .append("                ").append(SerializerProcessor.serialize(property, i, SerializerProcessor.access(property, i), "child")).append(";\n");
+                if (property.comment() != null) {
+                    source.append("                comment(child, \"").append(SerializerProcessor.escape(property.comment())).append("\");\n");
+                }
+                source.append("            }\n")
+                        .append("        }\n");
+            }
+            source.append("        return instance;\n");
+        }
+        source.append("    }\n");
+
+        // serialize
+        source.append("\n    @Override\n")
+                .append("    public void serialize(final java.lang.reflect.Type type, final ").append(typeName)
+                .append(" object, final org.spongepowered.configurate.ConfigurationNode node) throws org.spongepowered.configurate.serialize.SerializationException {\n")
+                .append("        if (object == null) {\n")
+                .append("            node.raw(null);\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        final ").append(typeName).append(" instance = object;\n");
+        for (int i = 0; i < properties.size(); i++) {
+            final Property property = properties.get(i);
+            final String child = "node.node(\"" + SerializerProcessor.escape(property.key()) + "\")";
+            source.append("        ").append(SerializerProcessor.serialize(property, i, isRecord ? "instance." + property.name() + "()" : SerializerProcessor.access(property, i), child)).append(";\n");
+            if (property.comment() != null) {
+                source.append("        comment(").append(child).append(", \"").append(SerializerProcessor.escape(property.comment())).append("\");\n");
+            }
+        }
+        source.append("    }\n");
+
+        source.append("\n    private static void comment(final org.spongepowered.configurate.ConfigurationNode node, final String comment) {\n")
+                .append("        if (node instanceof org.spongepowered.configurate.CommentedConfigurationNodeIntermediary<?> commented) {\n")
+                .append("            commented.commentIfAbsent(comment);\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        final String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (final IOException exception) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + qualifiedName + ": " + exception.getMessage(), type);
+        }
+    }
+
+    private void skip(final TypeElement type, final String reason) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "Not generating a serializer for %s (%s); the reflective object mapper will be used".formatted(type.getQualifiedName(), reason), type);
+    }
+
+    private static String serializerName(final TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof final TypeElement outer) {
+            name.insert(0, outer.getSimpleName() + "_");
+            enclosing = outer.getEnclosingElement();
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static String read(final Property property, final int index, final String node) {
+        if (property.nestedSerializer() != null) {
+            return property.nestedSerializer() + ".INSTANCE.deserialize(TYPE_" + index + ", " + node + ")";
+        }
+        return "(" + property.boxedType() + ") " + node + ".get(TYPE_" + index + ")";
+    }
+
+    private static String write(final Property property, final int index, final String value) {
+        if (property.inaccessible()) {
+            return "FIELD_" + index + ".set(instance, (" + property.type() + ") " + value + ")";
+        }
+        return "instance." + property.name() + " = " + value;
+    }
+
+    private static String access(final Property property, final int index) {
+        if (property.inaccessible()) {
+            return "(" + property.type() + ") FIELD_" + index + ".get(instance)";
+        }
+        return "instance." + property.name();
+    }
+
+    private static String serialize(final Property property, final int index, final String value, final String node) {
+        if (property.nestedSerializer() != null) {
+            return property.nestedSerializer() + ".INSTANCE.serialize(TYPE_" + index + ", " + value + ", " + node + ")";
+        }
+        return node + ".set(TYPE_" + index + ", " + value + ")";
+    }
+
+    private static String erasure(final String type) {
+        final StringBuilder builder = new StringBuilder(type.length());
+        int depth = 0;
+        for (final char c : type.toCharArray()) {
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String zero(final String primitive) {
+        return switch (primitive) {
+            case "boolean" -> "false";
+            case "char" -> "'\\0'";
+            case "long" -> "0L";
+            case "float" -> "0.0F";
+            case "double" -> "0.0D";
+            default -> "(" + primitive + ") 0";
+        };
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Object annotationValue(final AnnotationMirror mirror, final String name) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private record Property(String name, String key, String comment, String type, String boxedType,
+                            boolean primitive, boolean inaccessible, String nestedSerializer) {
+    }
+}
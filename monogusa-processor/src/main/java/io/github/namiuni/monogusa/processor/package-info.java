@@ -0,0 +1,4 @@
+/**
+ * Annotation processors generating configuration serializers.
+ */
+package io.github.namiuni.monogusa.processor;
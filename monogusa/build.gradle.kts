@@ -20,6 +20,12 @@ dependencies {
     api(libs.adventure.serializer.configurate) {
         isTransitive = false
     }
+
+    // Test
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testImplementation(libs.configurate.hocon)
 }
 
 indraSpotlessLicenser {
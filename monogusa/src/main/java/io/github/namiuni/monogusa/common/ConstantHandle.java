@@ -0,0 +1,66 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A value extracted from a {@link ReloadableHolder} that the JIT compiler can
+ * treat as a constant until the next reload.
+ *
+ * <p>The {@linkplain #handle() handle} is bound to the extracted value. When a
+ * reload publishes a new value, every constant of the holder is invalidated at
+ * once through a {@link java.lang.invoke.SwitchPoint}, compiled code depending
+ * on it is deoptimized, and the value is extracted again on the next call. To
+ * let the value fold into compiled code, store the handle in a
+ * {@code static final} field and call it with {@link MethodHandle#invokeExact(Object...)}:</p>
+ *
+ * <pre>{@code
+ * private static final MethodHandle PVP = HOLDER.constant(boolean.class, Config::pvp).handle();
+ *
+ * if ((boolean) PVP.invokeExact()) { ... }
+ * }</pre>
+ *
+ * @param <R> the type of the extracted value
+ */
+@NullMarked
+public sealed interface ConstantHandle<R> extends Supplier<R> permits ConstantHandleImpl {
+
+    /**
+     * Returns a handle taking no arguments and returning the current value,
+     * typed with the class given when the constant was created.
+     *
+     * @return the handle, the same instance on every call
+     */
+    MethodHandle handle();
+
+    /**
+     * Returns the current value through the handle.
+     *
+     * <p>This is convenient outside of hot paths, but does not fold the value
+     * like calling a handle stored in a constant field does.</p>
+     *
+     * @return the value extracted from the current value of the holder
+     */
+    @Override
+    R get();
+}
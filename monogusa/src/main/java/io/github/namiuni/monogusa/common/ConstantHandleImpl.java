@@ -0,0 +1,100 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A call site linked to a constant guarded by the switch point of the
+ * holder's current generation, and relinked lazily once that is invalidated.
+ *
+ * @param <T> the type of the holder's value
+ * @param <R> the type of the extracted value
+ */
+@NullMarked
+final class ConstantHandleImpl<T, R> implements ConstantHandle<R> {
+
+    private static final MethodHandle RELINK;
+
+    static {
+        try {
+            RELINK = MethodHandles.lookup().findVirtual(ConstantHandleImpl.class, "relink", MethodType.methodType(Object.class));
+        } catch (final NoSuchMethodException | IllegalAccessException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private final Supplier<T> source;
+    private final Supplier<SwitchPoint> switchPoint;
+    private final Class<R> type;
+    private final Function<? super T, ? extends R> extractor;
+    private final MutableCallSite callSite;
+    private final MethodHandle fallback;
+    private final MethodHandle handle;
+
+    ConstantHandleImpl(final Supplier<T> source, final Supplier<SwitchPoint> switchPoint, final Class<R> type, final Function<? super T, ? extends R> extractor) {
+        this.source = source;
+        this.switchPoint = switchPoint;
+        this.type = type;
+        this.extractor = extractor;
+        this.fallback = RELINK.bindTo(this).asType(MethodType.methodType(type));
+        this.callSite = new MutableCallSite(this.fallback);
+        this.handle = this.callSite.dynamicInvoker();
+    }
+
+    @Override
+    public MethodHandle handle() {
+        return this.handle;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R get() {
+        try {
+            return (R) this.handle.invoke();
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    // Reads the switch point before the value: if a reload happens in between, the
+    // switch point is already invalid and the next call relinks again.
+    private synchronized @Nullable Object relink() {
+        final SwitchPoint current = this.switchPoint.get();
+        final R value = this.extractor.apply(this.source.get());
+        if (value == null && this.type.isPrimitive()) {
+            // Neither the constant nor the unboxing of the fallback could represent it.
+            throw new NullPointerException("Extractor returned null for primitive type " + this.type.getName());
+        }
+        final MethodHandle constant = MethodHandles.constant(this.type, value);
+        this.callSite.setTarget(current.guardWithTest(constant, this.fallback));
+        return value;
+    }
+}
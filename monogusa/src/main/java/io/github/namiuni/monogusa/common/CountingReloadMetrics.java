@@ -0,0 +1,153 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@link ReloadMetrics} keeping counters and durations in memory, for exposing
+ * them through a command or a metrics exporter.
+ */
+@NullMarked
+public final class CountingReloadMetrics implements ReloadMetrics {
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong lastDuration = new AtomicLong();
+    private final AtomicLong maxDuration = new AtomicLong();
+    private volatile long fileSize = -1L;
+    private volatile long nodeCount;
+    private volatile int staleGenerations;
+    private volatile long staleBytes;
+
+    CountingReloadMetrics() {
+    }
+
+    @Override
+    public void loadSucceeded(final long durationNanos) {
+        this.loads.increment();
+        this.record(durationNanos);
+    }
+
+    @Override
+    public void loadFailed(final long durationNanos, final Throwable cause) {
+        this.failures.increment();
+        this.record(durationNanos);
+    }
+
+    @Override
+    public void sourceLoaded(final long fileSize, final long nodeCount) {
+        this.fileSize = fileSize;
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public void staleGenerations(final int reachable, final long approximateBytes) {
+        this.staleGenerations = reachable;
+        this.staleBytes = approximateBytes;
+    }
+
+    /**
+     * Returns the number of successful loads, including the initial one.
+     *
+     * @return the number of successful loads
+     */
+    public long loadCount() {
+        return this.loads.sum();
+    }
+
+    /**
+     * Returns the number of failed loads.
+     *
+     * @return the number of failed loads
+     */
+    public long failureCount() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Returns the duration of the most recent load, successful or not.
+     *
+     * @return the last duration, zero before the first load
+     */
+    public Duration lastDuration() {
+        return Duration.ofNanos(this.lastDuration.get());
+    }
+
+    /**
+     * Returns the duration of the slowest load, successful or not.
+     *
+     * @return the maximum duration, zero before the first load
+     */
+    public Duration maxDuration() {
+        return Duration.ofNanos(this.maxDuration.get());
+    }
+
+    /**
+     * Returns the size of the most recently loaded source file.
+     *
+     * @return the size in bytes, or {@code -1} if unknown
+     */
+    public long fileSize() {
+        return this.fileSize;
+    }
+
+    /**
+     * Returns the number of nodes in the most recently loaded tree.
+     *
+     * @return the node count, or zero if unknown
+     */
+    public long nodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Returns the number of replaced values found reachable after the most recent reload.
+     *
+     * @return the number of stale generations, zero unless {@link GenerationTracking} is enabled
+     */
+    public int staleGenerations() {
+        return this.staleGenerations;
+    }
+
+    /**
+     * Returns the estimated size of the replaced values found reachable after the most recent reload.
+     *
+     * @return the size in bytes, zero unless {@link GenerationTracking} is enabled
+     */
+    public long staleBytes() {
+        return this.staleBytes;
+    }
+
+    private void record(final long durationNanos) {
+        this.lastDuration.set(durationNanos);
+        this.maxDuration.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    @Override
+    public String toString() {
+        return "CountingReloadMetrics[loads=%d, failures=%d, last=%s, max=%s, fileSize=%d, nodes=%d, stale=%d (%d bytes)]".formatted(
+                this.loadCount(), this.failureCount(), this.lastDuration(), this.maxDuration(), this.fileSize, this.nodeCount,
+                this.staleGenerations, this.staleBytes);
+    }
+}
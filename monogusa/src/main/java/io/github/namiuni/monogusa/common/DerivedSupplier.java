@@ -0,0 +1,79 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A view derived from a {@link ReloadableHolder}, computed at most once per
+ * published value.
+ *
+ * <p>The computed result is remembered together with the source value it was
+ * derived from, so a reload is detected by identity without any locking on the
+ * read path. Concurrent readers of a new generation wait for a single computation
+ * instead of racing each other.</p>
+ *
+ * @param <T> the type of the source value
+ * @param <R> the type of the derived value
+ */
+@NullMarked
+final class DerivedSupplier<T, R> implements Supplier<R> {
+
+    private final Supplier<T> source;
+    private final Function<? super T, ? extends R> function;
+    private volatile @Nullable Memo<T, R> memo;
+
+    DerivedSupplier(final Supplier<T> source, final Function<? super T, ? extends R> function) {
+        this.source = source;
+        this.function = function;
+    }
+
+    @Override
+    public R get() {
+        final T value = this.source.get();
+        final Memo<T, R> current = this.memo;
+        if (current != null && current.source() == value) {
+            return current.result();
+        }
+
+        synchronized (this) {
+            final Memo<T, R> latest = this.memo;
+            if (latest != null && latest.source() == value) {
+                return latest.result();
+            }
+            final R result = this.function.apply(value);
+            this.memo = new Memo<>(value, result);
+            return result;
+        }
+    }
+
+    /**
+     * Drops the remembered result so that it does not outlive its source value.
+     */
+    void invalidate() {
+        this.memo = null;
+    }
+
+    private record Memo<T, R>(T source, R result) {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the values published by a holder through weak references and reports
+ * the replaced ones that outlive a major garbage collection.
+ */
+@NullMarked
+final class GenerationTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationTracker.class.getSimpleName());
+    private static final int MAX_CALL_SITES = 32;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Set<String> YOUNG_COLLECTORS = Set.of(
+            "Copy",
+            "PS Scavenge",
+            "ParNew",
+            "G1 Young Generation",
+            "ZGC Minor Cycles",
+            "ZGC Minor Pauses"
+    );
+    private static final Set<String> LIBRARY_PACKAGES = Set.of(
+            "io.github.namiuni.monogusa.common",
+            "io.github.namiuni.monogusa.configuration",
+            "io.github.namiuni.monogusa.message",
+            "io.github.namiuni.monogusa.propagation"
+    );
+
+    private final ReloadMetrics metrics;
+    private final boolean callSites;
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final Set<Generation> generations = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable Generation current;
+
+    GenerationTracker(final ReloadMetrics metrics, final boolean callSites) {
+        this.metrics = metrics;
+        this.callSites = callSites;
+    }
+
+    /**
+     * Starts tracking a newly published value and reports the replaced values still reachable.
+     *
+     * @param generation the number of the load that produced the value
+     * @param value      the published value
+     */
+    synchronized void published(final long generation, final Object value) {
+        final @Nullable Generation previous = this.current;
+        if (previous != null && previous.refersTo(value)) {
+            // Published again, as when nothing changed; it replaced nothing.
+            return;
+        }
+        final Generation published = new Generation(value, this.queue, generation, ObjectSizes.estimate(value), this.callSites);
+        if (previous != null) {
+            previous.majorCollections = majorCollections();
+        }
+        this.current = published;
+        this.generations.add(published);
+        this.report();
+    }
+
+    /**
+     * Records the caller reading the current value, if call sites are tracked.
+     *
+     * @param value the value returned to the caller
+     */
+    void read(final Object value) {
+        final @Nullable Generation generation = this.current;
+        if (!this.callSites || generation == null || !generation.refersTo(value) || generation.callSites.size() >= MAX_CALL_SITES) {
+            return;
+        }
+        STACK_WALKER.walk(frames -> frames
+                        .filter(frame -> !LIBRARY_PACKAGES.contains(frame.getDeclaringClass().getPackageName()))
+                        .findFirst())
+                .ifPresent(frame -> generation.callSites.add(frame.toStackTraceElement().toString()));
+    }
+
+    private void report() {
+        for (Object cleared = this.queue.poll(); cleared != null; cleared = this.queue.poll()) {
+            this.generations.remove(cleared);
+        }
+
+        final long collections = majorCollections();
+        final List<Generation> stale = new ArrayList<>();
+        long bytes = 0L;
+        for (final Generation generation : this.generations) {
+            // Only a major collection clears values that made it to the old generation.
+            if (generation != this.current && !generation.refersTo(null) && collections > generation.majorCollections) {
+                stale.add(generation);
+                bytes += generation.estimatedBytes;
+            }
+        }
+        this.metrics.staleGenerations(stale.size(), bytes);
+
+        for (final Generation generation : stale) {
+            if (this.callSites && !generation.logged) {
+                generation.logged = true;
+                LOGGER.warn("Generation {} (~{} bytes) is still reachable after being replaced; it was read at {}",
+                        generation.number, generation.estimatedBytes, generation.callSites);
+            }
+        }
+    }
+
+    // Counts the collections able to clear the old generation, i.e. those of every collector but the young ones.
+    private static long majorCollections() {
+        long collections = 0L;
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!YOUNG_COLLECTORS.contains(collector.getName())) {
+                collections += Math.max(collector.getCollectionCount(), 0L);
+            }
+        }
+        return collections;
+    }
+
+    private static final class Generation extends WeakReference<Object> {
+
+        private final long number;
+        private final long estimatedBytes;
+        private final Set<String> callSites;
+        private long majorCollections = Long.MAX_VALUE;
+        private boolean logged;
+
+        private Generation(final Object value, final ReferenceQueue<Object> queue, final long number, final long estimatedBytes, final boolean callSites) {
+            super(value, queue);
+            this.number = number;
+            this.estimatedBytes = estimatedBytes;
+            this.callSites = callSites ? ConcurrentHashMap.newKeySet() : Set.of();
+        }
+    }
+}
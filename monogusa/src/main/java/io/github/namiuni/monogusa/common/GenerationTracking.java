@@ -0,0 +1,54 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * How closely a {@link ReloadableHolder} watches the values it has replaced.
+ *
+ * <p>Values kept alive after a reload, typically because a plugin stored the
+ * result of {@link ReloadableHolder#get()} in a long-lived object, pile up in
+ * the old generation of the heap with every reload. Tracking references each
+ * published value weakly and reports the replaced ones that survive a major
+ * garbage collection through {@link ReloadMetrics#staleGenerations(int, long)}.</p>
+ */
+@NullMarked
+public enum GenerationTracking {
+
+    /**
+     * Nothing is tracked. This is the default and costs nothing.
+     */
+    DISABLED,
+
+    /**
+     * Counts the replaced values that are still reachable and estimates their
+     * size. Each reload additionally walks the new value once to estimate it.
+     */
+    COUNT,
+
+    /**
+     * Like {@link #COUNT}, and additionally records the call sites reading each
+     * value, which are logged once the value is found to be retained after
+     * being replaced. This walks the stack on every {@link ReloadableHolder#get()}
+     * and is only meant for tracking down a leak.
+     */
+    CALL_SITES
+}
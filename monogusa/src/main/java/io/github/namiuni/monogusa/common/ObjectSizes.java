@@ -0,0 +1,199 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Rough estimates of the heap retained by an object graph.
+ *
+ * <p>Sizes assume compressed references and 16-byte object headers. Classes
+ * whose fields cannot be read reflectively, such as those of the JDK, only
+ * count their shallow size, except for strings, collections and maps, whose
+ * contents are walked through their public API.</p>
+ */
+@NullMarked
+final class ObjectSizes {
+
+    private static final int MAX_OBJECTS = 100_000;
+    private static final int HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(final Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private ObjectSizes() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Estimates the size of everything reachable from the given object, giving
+     * up after a fixed number of objects.
+     *
+     * @param    root the root of the graph
+     * @return   the estimated size in bytes
+     */
+    static long estimate(final Object root) {
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long bytes = 0L;
+
+        while (!pending.isEmpty() && visited.size() < MAX_OBJECTS) {
+            final Object object = pending.pop();
+            // Enum constants and classes are shared by every generation.
+            if (object instanceof Enum<?> || object instanceof Class<?> || !visited.add(object)) {
+                continue;
+            }
+
+            if (object instanceof final String string) {
+                bytes += HEADER + 8 + HEADER + string.length();
+                continue;
+            }
+
+            final Class<?> type = object.getClass();
+            if (type.isArray()) {
+                bytes += arraySize(object, pending);
+                continue;
+            }
+
+            final Layout layout = LAYOUTS.get(type);
+            bytes += layout.shallowSize();
+            if (layout.readable()) {
+                for (final Field field : layout.references()) {
+                    final @Nullable Object value = read(field, object);
+                    if (value != null) {
+                        pending.push(value);
+                    }
+                }
+            } else {
+                bytes += contents(object, pending);
+            }
+        }
+        return bytes;
+    }
+
+    private static long arraySize(final Object array, final Deque<Object> pending) {
+        final Class<?> component = array.getClass().getComponentType();
+        if (component.isPrimitive()) {
+            return HEADER + (long) Array.getLength(array) * primitiveSize(component);
+        }
+        final Object[] elements = (Object[]) array;
+        for (final @Nullable Object element : elements) {
+            if (element != null) {
+                pending.push(element);
+            }
+        }
+        return HEADER + (long) elements.length * REFERENCE;
+    }
+
+    // Walks JDK containers through their public API, counting one node or slot per element.
+    private static long contents(final Object object, final Deque<Object> pending) {
+        try {
+            if (object instanceof final Map<?, ?> map) {
+                for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                    push(entry.getKey(), pending);
+                    push(entry.getValue(), pending);
+                }
+                return (long) map.size() * (HEADER + 3 * REFERENCE + 4);
+            }
+            if (object instanceof final Collection<?> collection) {
+                for (final Object element : collection) {
+                    push(element, pending);
+                }
+                return (long) collection.size() * REFERENCE;
+            }
+        } catch (final RuntimeException exception) {
+            // Concurrently modified or lazily computed containers are only counted shallowly.
+        }
+        return 0L;
+    }
+
+    private static void push(final @Nullable Object value, final Deque<Object> pending) {
+        if (value != null) {
+            pending.push(value);
+        }
+    }
+
+    private static @Nullable Object read(final Field field, final Object object) {
+        try {
+            return field.get(object);
+        } catch (final IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private static int primitiveSize(final Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private record Layout(long shallowSize, boolean readable, List<Field> references) {
+
+        private static Layout of(final Class<?> type) {
+            long size = HEADER;
+            boolean readable = true;
+            final List<Field> references = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                    } else {
+                        size += REFERENCE;
+                        if (field.trySetAccessible()) {
+                            references.add(field);
+                        } else {
+                            readable = false;
+                        }
+                    }
+                }
+            }
+            return new Layout(size, readable, List.copyOf(references));
+        }
+    }
+}
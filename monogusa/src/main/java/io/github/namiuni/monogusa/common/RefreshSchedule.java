@@ -0,0 +1,108 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically refreshes a holder in the background.
+ *
+ * <p>A single daemon thread schedules the refreshes of every holder, while
+ * the loads themselves run on the executor given for each holder. Delays are
+ * jittered by up to a tenth in either direction so that holders created
+ * together drift apart. After a failed refresh, the next attempt is made
+ * after a quarter of the TTL, doubling with each consecutive failure up to
+ * eight times the TTL. The schedule only references its holder weakly and
+ * stops once the holder has been garbage collected.</p>
+ */
+@NullMarked
+final class RefreshSchedule implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableHolder.class.getSimpleName());
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("monogusa-refresh").factory());
+    private static final double JITTER = 0.1D;
+    private static final int MAX_BACKOFF_FACTOR = 8;
+    // A quarter of the TTL shifted this far is the maximum backoff.
+    private static final int MAX_BACKOFF_SHIFT = Integer.numberOfTrailingZeros(MAX_BACKOFF_FACTOR * 4);
+
+    private final WeakReference<ReloadableHolder<?>> holder;
+    private final long ttlNanos;
+    private final Executor executor;
+    private int failures;
+
+    private RefreshSchedule(final ReloadableHolder<?> holder, final Duration ttl, final Executor executor) {
+        this.holder = new WeakReference<>(holder);
+        this.ttlNanos = ttl.toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * Starts refreshing the holder once the TTL has elapsed, and again after each refresh.
+     *
+     * @param holder   the holder to refresh
+     * @param ttl      the time a value is served before being refreshed
+     * @param executor the executor running the loads
+     */
+    static void start(final ReloadableHolder<?> holder, final Duration ttl, final Executor executor) {
+        new RefreshSchedule(holder, ttl, executor).scheduleNext();
+    }
+
+    @Override
+    public void run() {
+        final @Nullable ReloadableHolder<?> target = this.holder.get();
+        if (target == null) {
+            return;
+        }
+        target.reloadAsync(this.executor).whenComplete((value, failure) -> {
+            if (failure == null) {
+                this.failures = 0;
+            } else {
+                this.failures++;
+                LOGGER.warn("Failed to refresh a holder, keeping its current value (attempt {})", this.failures, failure);
+            }
+            this.scheduleNext();
+        });
+    }
+
+    private void scheduleNext() {
+        final long delay;
+        if (this.failures == 0) {
+            delay = this.ttlNanos;
+        } else {
+            // A quarter of the TTL, doubled per consecutive failure until it reaches the cap, saturating for huge TTLs.
+            final long quarter = this.ttlNanos / 4;
+            final int shift = Math.min(this.failures - 1, MAX_BACKOFF_SHIFT);
+            delay = quarter > Long.MAX_VALUE >> shift ? Long.MAX_VALUE : quarter << shift;
+        }
+        final double jitter = 1.0D + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        SCHEDULER.schedule(this, Math.max((long) (delay * jitter), 1L), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A callback notified after a {@link ReloadableHolder} has published a new value.
+ *
+ * @param <T> the type of value held
+ */
+@NullMarked
+@FunctionalInterface
+public interface ReloadListener<T> {
+
+    /**
+     * Called once the new value is visible through {@link ReloadableHolder#get()}.
+     *
+     * @param previous the value that was replaced
+     * @param current  the newly published value
+     */
+    void onReload(T previous, T current);
+}
@@ -0,0 +1,94 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Receives measurements of the loads performed by a {@link ReloadableHolder}.
+ *
+ * <p>Implementations are called on the loading thread and must be thread-safe,
+ * since asynchronous reloads may overlap. The {@linkplain #noop() no-op}
+ * instance is the default; holders skip timing entirely when it is used.</p>
+ */
+@NullMarked
+public interface ReloadMetrics {
+
+    /**
+     * Returns metrics that discard every measurement.
+     *
+     * @return the no-op instance
+     */
+    static ReloadMetrics noop() {
+        return NoopReloadMetrics.INSTANCE;
+    }
+
+    /**
+     * Creates metrics that keep counters and durations in memory.
+     *
+     * @return a new, empty instance
+     */
+    static CountingReloadMetrics counting() {
+        return new CountingReloadMetrics();
+    }
+
+    /**
+     * Called after a value was loaded successfully.
+     *
+     * @param durationNanos the time the load took, in nanoseconds
+     */
+    void loadSucceeded(long durationNanos);
+
+    /**
+     * Called after a load failed.
+     *
+     * @param durationNanos the time until the load failed, in nanoseconds
+     * @param cause         the exception thrown by the load
+     */
+    void loadFailed(long durationNanos, Throwable cause);
+
+    /**
+     * Called by file-based loaders with the size of the loaded source.
+     *
+     * @param fileSize  the size of the file in bytes, or {@code -1} if unknown
+     * @param nodeCount the number of nodes in the loaded tree
+     */
+    default void sourceLoaded(final long fileSize, final long nodeCount) {
+    }
+
+    /**
+     * Called by configuration loaders after migrating a loaded tree to a newer schema version.
+     *
+     * @param version       the version migrated to
+     * @param durationNanos the time the migration took, in nanoseconds
+     */
+    default void migrationApplied(final int version, final long durationNanos) {
+    }
+
+    /**
+     * Called after each reload by holders with {@link GenerationTracking} enabled,
+     * with the replaced values that survived a major garbage collection.
+     *
+     * @param reachable        the number of replaced values still reachable
+     * @param approximateBytes their estimated combined size, in bytes
+     */
+    default void staleGenerations(final int reachable, final long approximateBytes) {
+    }
+}
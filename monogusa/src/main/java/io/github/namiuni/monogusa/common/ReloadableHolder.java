@@ -19,6 +19,11 @@
  */
 package io.github.namiuni.monogusa.common;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.jspecify.annotations.NullMarked;
 
@@ -45,13 +50,235 @@ public sealed interface ReloadableHolder<T> extends Supplier<T> permits Reloadab
      * @return   a new {@code ReloadableHolder} instance
      */
     static <T> ReloadableHolder<T> simple(final Instantiation<T> instantiation) {
-        return new ReloadableHolderImpl<>(instantiation);
+        return new ReloadableHolderImpl<>(instantiation, ReloadMetrics.noop(), false);
+    }
+
+    /**
+     * Creates a simple {@code ReloadableHolder} reporting every load to the given metrics.
+     *
+     * <p>Each load, including the initial one, is also recorded as an
+     * {@code io.github.namiuni.monogusa.Reload} JFR event.</p>
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent reloads
+     * @param    metrics       the metrics receiving load durations and failures
+     * @param    <T> the type of value
+     * @return   a new {@code ReloadableHolder} instance
+     */
+    static <T> ReloadableHolder<T> simple(final Instantiation<T> instantiation, final ReloadMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+        return new ReloadableHolderImpl<>(instantiation, metrics, false);
+    }
+
+    /**
+     * Creates a simple {@code ReloadableHolder} reporting every load, and the
+     * replaced values it finds still reachable, to the given metrics.
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent reloads
+     * @param    metrics       the metrics receiving load durations, failures and stale generations
+     * @param    tracking      how closely replaced values are tracked
+     * @param    <T> the type of value
+     * @return   a new {@code ReloadableHolder} instance
+     */
+    static <T> ReloadableHolder<T> simple(final Instantiation<T> instantiation, final ReloadMetrics metrics, final GenerationTracking tracking) {
+        Objects.requireNonNull(metrics, "metrics");
+        Objects.requireNonNull(tracking, "tracking");
+        return new ReloadableHolderImpl<>(instantiation, metrics, false, tracking);
+    }
+
+    /**
+     * Creates a {@code ReloadableHolder} that defers the initial instantiation
+     * until the value is first read.
+     *
+     * <p>The first call to {@link #get()} instantiates the value exactly once,
+     * even when called concurrently; later reads are as cheap as those of a
+     * {@linkplain #simple(Instantiation) simple} holder. Until then,
+     * {@link #reload()} does nothing, since the first read loads the current
+     * state anyway, whereas {@link #reloadAsync()} loads the value in the
+     * background. Listeners are only notified of reloads that replace a value.</p>
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent reloads
+     * @param    <T> the type of value
+     * @return   a new, uninitialized {@code ReloadableHolder} instance
+     */
+    static <T> ReloadableHolder<T> lazy(final Instantiation<T> instantiation) {
+        return new ReloadableHolderImpl<>(instantiation, ReloadMetrics.noop(), true);
+    }
+
+    /**
+     * Creates a {@linkplain #lazy(Instantiation) lazy} {@code ReloadableHolder}
+     * reporting every load to the given metrics.
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent reloads
+     * @param    metrics       the metrics receiving load durations and failures
+     * @param    <T> the type of value
+     * @return   a new, uninitialized {@code ReloadableHolder} instance
+     */
+    static <T> ReloadableHolder<T> lazy(final Instantiation<T> instantiation, final ReloadMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+        return new ReloadableHolderImpl<>(instantiation, metrics, true);
+    }
+
+    /**
+     * Creates a {@linkplain #lazy(Instantiation) lazy} {@code ReloadableHolder}
+     * reporting every load, and the replaced values it finds still reachable,
+     * to the given metrics.
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent reloads
+     * @param    metrics       the metrics receiving load durations, failures and stale generations
+     * @param    tracking      how closely replaced values are tracked
+     * @param    <T> the type of value
+     * @return   a new, uninitialized {@code ReloadableHolder} instance
+     */
+    static <T> ReloadableHolder<T> lazy(final Instantiation<T> instantiation, final ReloadMetrics metrics, final GenerationTracking tracking) {
+        Objects.requireNonNull(metrics, "metrics");
+        Objects.requireNonNull(tracking, "tracking");
+        return new ReloadableHolderImpl<>(instantiation, metrics, true, tracking);
+    }
+
+    /**
+     * Creates a {@code ReloadableHolder} that refreshes its value in the
+     * background once it is older than the given TTL, for sources that do not
+     * signal changes, such as a database or a remote settings service.
+     *
+     * <p>The value is loaded once before this method returns. Readers are
+     * always served the current value without waiting; a refresh replaces it
+     * only once the new value is loaded. Refreshes are jittered so that many
+     * holders created together do not hit their sources at the same time. A
+     * failed refresh keeps the last good value and is retried with exponential
+     * backoff. Refreshing stops once the holder is no longer referenced.</p>
+     *
+     * @param    instantiation the supplier to be used for initial creation and subsequent refreshes
+     * @param    ttl           the time a value is served before being refreshed
+     * @param    executor      the executor running the refreshes
+     * @param    <T> the type of value
+     * @return   a new {@code ReloadableHolder} instance
+     * @throws   IllegalArgumentException if the TTL is not positive
+     */
+    static <T> ReloadableHolder<T> refreshing(final Instantiation<T> instantiation, final Duration ttl, final Executor executor) {
+        Objects.requireNonNull(ttl, "ttl");
+        Objects.requireNonNull(executor, "executor");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        final ReloadableHolder<T> holder = new ReloadableHolderImpl<>(instantiation, ReloadMetrics.noop(), false);
+        RefreshSchedule.start(holder, ttl, executor);
+        return holder;
     }
 
     /**
      * Reloads the held value by re-invoking the underlying data source.
      * After this method completes, subsequent calls to {@link #get()} will
      * return the newly loaded value.
+     *
+     * <p>Reloads never overlap. A call made while another reload is loading
+     * waits for it and then for a single follow-up load, which is shared by
+     * every reload requested in the meantime, so the result always reflects
+     * the source as of the call. Each load is numbered, and a value is never
+     * replaced by one from an older load.</p>
      */
     void reload();
+
+    /**
+     * Reloads the held value on a virtual thread.
+     *
+     * <p>Behaves like {@link #reloadAsync(Executor)} with an executor starting
+     * a virtual thread per load.</p>
+     *
+     * @return a future completed with the value held once the reload is applied
+     */
+    CompletableFuture<T> reloadAsync();
+
+    /**
+     * Reloads the held value on the given executor.
+     *
+     * <p>When no reload is loading, the instantiation runs on the given executor
+     * and its value is published right away on that same thread. Otherwise the
+     * request is coalesced as described in {@link #reload()}: it shares the
+     * follow-up load of every request made meanwhile that did not name an apply
+     * executor, which runs, and is published, on the executor of whichever of
+     * them scheduled it first, not necessarily this one.</p>
+     *
+     * <p>A value is only published if no newer load was published before it;
+     * a superseded value is dropped without notifying listeners, and the
+     * returned future is completed with the newer value held instead. If the
+     * instantiation fails, the held value is left untouched and the future
+     * completes exceptionally.</p>
+     *
+     * @param    loadExecutor the executor running the instantiation, unless the request is coalesced
+     * @return   a future completed with the value held once the reload is applied
+     */
+    CompletableFuture<T> reloadAsync(Executor loadExecutor);
+
+    /**
+     * Reloads the held value on {@code loadExecutor} and publishes it on {@code applyExecutor}.
+     *
+     * <p>The instantiation, including any file I/O, runs entirely on the load
+     * executor. Only the swap of the held value is handed to the apply executor,
+     * so a platform main thread can be used there without ever waiting on disk,
+     * for example {@code task -> Bukkit.getScheduler().runTask(plugin, task)}.
+     * Readers keep observing the previous value until the swap happens.</p>
+     *
+     * <p>If the instantiation fails, the held value is left untouched and the
+     * returned future completes exceptionally. Requests made while a reload is
+     * loading share a follow-up load with those naming the same apply executor,
+     * which runs on the load executor of whichever of them scheduled it first.
+     * As with {@link #reloadAsync(Executor)}, a value superseded by a newer
+     * load before its swap runs is never published.</p>
+     *
+     * @param    loadExecutor  the executor running the instantiation, unless the request is coalesced
+     * @param    applyExecutor the executor publishing the new value
+     * @return   a future completed with the value held once the reload is applied
+     */
+    CompletableFuture<T> reloadAsync(Executor loadExecutor, Executor applyExecutor);
+
+    /**
+     * Registers a listener notified every time a new value is published.
+     *
+     * <p>Listeners run on the thread publishing the value, right after the swap,
+     * in registration order. A listener throwing an exception does not prevent
+     * the others from being notified. A reload publishing the very instance
+     * already held, as a configuration with structural sharing does when its
+     * file is unchanged, notifies no listener.</p>
+     *
+     * @param    listener the listener to register
+     * @return   a handle removing the listener again
+     */
+    Subscription subscribe(ReloadListener<? super T> listener);
+
+    /**
+     * Returns a view deriving a value from the held one, such as a compiled
+     * pattern or a lookup map built from a list.
+     *
+     * <p>The function is applied lazily on the first {@link Supplier#get()} after
+     * each reload and its result is reused until the next one. Concurrent readers
+     * share a single computation.</p>
+     *
+     * @param    function the function deriving the value; it should be free of side effects
+     * @param    <R> the type of the derived value
+     * @return   a memoized supplier of the derived value
+     */
+    <R> Supplier<R> map(Function<? super T, ? extends R> function);
+
+    /**
+     * Returns a value extracted from the held one as a method handle the JIT
+     * compiler can fold into compiled code, such as a feature flag or a
+     * threshold read in a hot loop.
+     *
+     * <p>The extractor runs on the first call of the handle after each reload.
+     * Every constant of a holder is invalidated together when a new value is
+     * published, so each reload deoptimizes the code depending on them once.
+     * Holders without constants are not affected. See {@link ConstantHandle}
+     * for how to call the handle.</p>
+     *
+     * <p>For a primitive type, a call of the handle fails with a
+     * {@link NullPointerException} if the extractor returns {@code null}, and
+     * extracts again on the next call.</p>
+     *
+     * @param    type      the type of the extracted value, which may be primitive
+     * @param    extractor the function extracting the value; it should be cheap and free of side effects,
+     *                     and must not return {@code null} for a primitive type
+     * @param    <R> the type of the extracted value
+     * @return   a new constant handle
+     */
+    <R> ConstantHandle<R> constant(Class<R> type, Function<? super T, ? extends R> extractor);
 }
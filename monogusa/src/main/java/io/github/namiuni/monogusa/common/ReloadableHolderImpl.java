@@ -19,27 +19,324 @@
  */
 package io.github.namiuni.monogusa.common;
 
+import java.lang.invoke.SwitchPoint;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @NullMarked
 final class ReloadableHolderImpl<T> implements ReloadableHolder<T> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableHolder.class.getSimpleName());
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("monogusa-reload").start(task);
+    private static final Executor CALLER = Runnable::run;
+
     private final Instantiation<T> instantiation;
-    private final AtomicReference<T> reference;
+    private final ReloadMetrics metrics;
+    private final @Nullable GenerationTracker tracker;
+    private final AtomicReference<@Nullable T> reference;
+    private final List<ReloadListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    private final Object initializationLock = new Object();
+    private final Object reloadLock = new Object();
+    private final Object publishLock = new Object();
+
+    // Guarded by reloadLock: the load running now, the follow-ups requested meanwhile keyed by where they publish,
+    // and the last generation started.
+    private @Nullable CompletableFuture<T> inFlight;
+    private final Map<Executor, FollowUp<T>> followUps = new LinkedHashMap<>();
+    private long generations;
+
+    // Guarded by publishLock.
+    private long publishedGeneration;
+
+    // Replaced and invalidated on every publish once a constant handle has been created.
+    private volatile @Nullable SwitchPoint switchPoint;
+
+    ReloadableHolderImpl(final Instantiation<T> instantiation, final ReloadMetrics metrics, final boolean lazy) {
+        this(instantiation, metrics, lazy, GenerationTracking.DISABLED);
+    }
 
-    ReloadableHolderImpl(final Instantiation<T> instantiation) {
+    ReloadableHolderImpl(final Instantiation<T> instantiation, final ReloadMetrics metrics, final boolean lazy, final GenerationTracking tracking) {
         this.instantiation = instantiation;
-        this.reference = new AtomicReference<>(instantiation.instantiate());
+        this.metrics = metrics;
+        this.tracker = tracking == GenerationTracking.DISABLED ? null : new GenerationTracker(metrics, tracking == GenerationTracking.CALL_SITES);
+        this.reference = new AtomicReference<>();
+        if (!lazy) {
+            final T value = this.load();
+            this.reference.set(value);
+            if (this.tracker != null) {
+                this.tracker.published(0L, value);
+            }
+        }
     }
 
     @Override
     public void reload() {
-        this.reference.set(this.instantiation.instantiate());
+        // Never read: the first get() loads the current state anyway, unless it is loading right now.
+        if (this.reference.get() == null && !this.awaitInitialization()) {
+            return;
+        }
+        try {
+            this.request(CALLER, null).join();
+        } catch (final CompletionException exception) {
+            if (exception.getCause() instanceof final RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof final Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    @Override
+    public CompletableFuture<T> reloadAsync() {
+        return this.reloadAsync(VIRTUAL_THREADS);
+    }
+
+    @Override
+    public CompletableFuture<T> reloadAsync(final Executor loadExecutor) {
+        Objects.requireNonNull(loadExecutor, "loadExecutor");
+        return this.request(loadExecutor, null).copy();
+    }
+
+    @Override
+    public CompletableFuture<T> reloadAsync(final Executor loadExecutor, final Executor applyExecutor) {
+        Objects.requireNonNull(loadExecutor, "loadExecutor");
+        Objects.requireNonNull(applyExecutor, "applyExecutor");
+        return this.request(loadExecutor, applyExecutor).copy();
+    }
+
+    @Override
+    public Subscription subscribe(final ReloadListener<? super T> listener) {
+        Objects.requireNonNull(listener, "listener");
+        this.listeners.add(listener);
+        return () -> this.listeners.remove(listener);
+    }
+
+    @Override
+    public <R> Supplier<R> map(final Function<? super T, ? extends R> function) {
+        Objects.requireNonNull(function, "function");
+        final DerivedSupplier<T, R> derived = new DerivedSupplier<>(this, function);
+        this.listeners.add(new Invalidation(new WeakReference<>(derived)));
+        return derived;
+    }
+
+    @Override
+    public <R> ConstantHandle<R> constant(final Class<R> type, final Function<? super T, ? extends R> extractor) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(extractor, "extractor");
+        return new ConstantHandleImpl<>(this, this::switchPoint, type, extractor);
     }
 
     @Override
     public T get() {
-        return this.reference.get();
+        final @Nullable T value = this.reference.get();
+        final T result = value != null ? value : this.initialize();
+        if (this.tracker != null) {
+            this.tracker.read(result);
+        }
+        return result;
+    }
+
+    private T initialize() {
+        synchronized (this.initializationLock) {
+            final @Nullable T current = this.reference.get();
+            if (current != null) {
+                return current;
+            }
+            final long generation;
+            synchronized (this.reloadLock) {
+                generation = ++this.generations;
+            }
+            return this.publish(generation, this.load());
+        }
+    }
+
+    // A load already in flight may have read its source before the caller's change, so callers never
+    // join it; requests arriving during a load share a follow-up started once it finishes. Requests only
+    // share a follow-up that publishes where they would, so a blocking reload() on the thread behind some
+    // apply executor never waits for a publish queued on itself, and listeners always run where requested.
+    private CompletableFuture<T> request(final Executor loadExecutor, final @Nullable Executor applyExecutor) {
+        final CompletableFuture<T> future;
+        final long generation;
+        synchronized (this.reloadLock) {
+            if (this.inFlight != null) {
+                // Follow-ups are started by whichever thread finishes the load before them, never inline.
+                final Executor executor = loadExecutor == CALLER ? VIRTUAL_THREADS : loadExecutor;
+                return this.followUps.computeIfAbsent(applyExecutor != null ? applyExecutor : CALLER,
+                    key -> new FollowUp<>(new CompletableFuture<>(), executor, applyExecutor)).future();
+            }
+            future = new CompletableFuture<>();
+            this.inFlight = future;
+            generation = ++this.generations;
+        }
+        this.start(generation, future, loadExecutor, applyExecutor);
+        return future;
+    }
+
+    private void start(final long generation, final CompletableFuture<T> future, final Executor loadExecutor, final @Nullable Executor applyExecutor) {
+        final Runnable task = () -> {
+            final T value;
+            try {
+                value = this.load();
+            } catch (final Throwable throwable) {
+                this.startFollowUp();
+                future.completeExceptionally(throwable);
+                return;
+            }
+            this.startFollowUp();
+            if (applyExecutor == null) {
+                future.complete(this.publish(generation, value));
+            } else {
+                try {
+                    applyExecutor.execute(() -> future.complete(this.publish(generation, value)));
+                } catch (final RuntimeException exception) {
+                    future.completeExceptionally(exception);
+                }
+            }
+        };
+        try {
+            loadExecutor.execute(task);
+        } catch (final RuntimeException exception) {
+            this.startFollowUp();
+            future.completeExceptionally(exception);
+        }
+    }
+
+    // Follow-ups for different apply executors run one after another, each loading anew.
+    private void startFollowUp() {
+        final FollowUp<T> next;
+        final long generation;
+        synchronized (this.reloadLock) {
+            final Iterator<FollowUp<T>> pending = this.followUps.values().iterator();
+            if (!pending.hasNext()) {
+                this.inFlight = null;
+                return;
+            }
+            next = pending.next();
+            pending.remove();
+            this.inFlight = next.future();
+            generation = ++this.generations;
+        }
+        this.start(generation, next.future(), next.loadExecutor(), next.applyExecutor());
+    }
+
+    private SwitchPoint switchPoint() {
+        final @Nullable SwitchPoint current = this.switchPoint;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this.publishLock) {
+            if (this.switchPoint == null) {
+                this.switchPoint = new SwitchPoint();
+            }
+            return this.switchPoint;
+        }
+    }
+
+    private boolean awaitInitialization() {
+        synchronized (this.initializationLock) {
+            return this.reference.get() != null;
+        }
+    }
+
+    private T load() {
+        final ReloadEvent event = new ReloadEvent();
+        event.begin();
+        final boolean measured = this.metrics != ReloadMetrics.noop();
+        final long start = measured ? System.nanoTime() : 0L;
+        try {
+            final T value = this.instantiation.instantiate();
+            if (measured) {
+                this.metrics.loadSucceeded(System.nanoTime() - start);
+            }
+            if (event.shouldCommit()) {
+                event.valueType = value.getClass().getName();
+                event.success = true;
+                event.commit();
+            }
+            return value;
+        } catch (final RuntimeException | Error exception) {
+            if (measured) {
+                this.metrics.loadFailed(System.nanoTime() - start, exception);
+            }
+            event.commit();
+            throw exception;
+        }
+    }
+
+    // Publishes the value unless a newer generation already was, e.g. when an older load's apply executor ran late.
+    private T publish(final long generation, final T value) {
+        final @Nullable T previous;
+        synchronized (this.publishLock) {
+            if (generation < this.publishedGeneration) {
+                return Objects.requireNonNull(this.reference.get());
+            }
+            this.publishedGeneration = generation;
+            previous = this.reference.getAndSet(value);
+            if (previous == value) {
+                // A load that found nothing changed, e.g. with structural sharing, replaced nothing.
+                return value;
+            }
+            if (this.tracker != null) {
+                this.tracker.published(generation, value);
+            }
+            final @Nullable SwitchPoint expired = this.switchPoint;
+            if (expired != null) {
+                this.switchPoint = new SwitchPoint();
+                SwitchPoint.invalidateAll(new SwitchPoint[] {expired});
+            }
+        }
+        if (previous == null) {
+            // An asynchronous reload initialized a lazy holder; there is nothing to compare against.
+            return value;
+        }
+        for (final ReloadListener<? super T> listener : this.listeners) {
+            try {
+                listener.onReload(previous, value);
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Reload listener {} failed", listener, exception);
+            }
+        }
+        return value;
+    }
+
+    // Drops the result of a derived view so that it does not keep the replaced value reachable, without keeping
+    // the view itself reachable; removes itself on the first reload after the view has been collected.
+    private final class Invalidation implements ReloadListener<T> {
+
+        private final WeakReference<DerivedSupplier<T, ?>> derived;
+
+        Invalidation(final WeakReference<DerivedSupplier<T, ?>> derived) {
+            this.derived = derived;
+        }
+
+        @Override
+        public void onReload(final T previous, final T current) {
+            final @Nullable DerivedSupplier<T, ?> supplier = this.derived.get();
+            if (supplier != null) {
+                supplier.invalidate();
+            } else {
+                ReloadableHolderImpl.this.listeners.remove(this);
+            }
+        }
+    }
+
+    private record FollowUp<T>(CompletableFuture<T> future, Executor loadExecutor, @Nullable Executor applyExecutor) {
     }
 }
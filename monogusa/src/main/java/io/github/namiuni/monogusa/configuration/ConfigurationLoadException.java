@@ -0,0 +1,59 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.io.Serial;
+import java.util.Map;
+
+/**
+ * Thrown when one or more configurations of a {@link ConfigurationRegistry}
+ * failed to load.
+ *
+ * <p>Every failure is attached as a suppressed exception and is also available
+ * by registration id through {@link #failures()}.</p>
+ */
+public final class ConfigurationLoadException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 3269409614780353823L;
+
+    private final transient Map<String, Throwable> failures;
+
+    /**
+     * Constructs an instance of this class.
+     *
+     * @param   message  the detail message
+     * @param   failures the failures keyed by registration id
+     */
+    public ConfigurationLoadException(final String message, final Map<String, Throwable> failures) {
+        super(message);
+        this.failures = Map.copyOf(failures);
+        this.failures.values().forEach(this::addSuppressed);
+    }
+
+    /**
+     * Returns the failures keyed by registration id.
+     *
+     * @return an unmodifiable map of failures
+     */
+    public Map<String, Throwable> failures() {
+        return this.failures;
+    }
+}
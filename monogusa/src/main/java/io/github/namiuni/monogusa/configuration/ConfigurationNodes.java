@@ -0,0 +1,208 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.CommentedConfigurationNodeIntermediary;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodePath;
+
+/**
+ * Structural helpers for {@link ConfigurationNode} trees.
+ */
+final class ConfigurationNodes {
+
+    private ConfigurationNodes() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Checks whether two node trees would be written out identically.
+     *
+     * <p>Unlike {@link ConfigurationNode#equals(Object)}, comments are taken into account.</p>
+     *
+     * @param    first  the first tree
+     * @param    second the second tree
+     * @return   {@code true} if both trees have the same values, structure and comments
+     */
+    static boolean equivalent(final ConfigurationNode first, final ConfigurationNode second) {
+        if (!Objects.equals(ConfigurationNodes.comment(first), ConfigurationNodes.comment(second))) {
+            return false;
+        }
+
+        if (first.isMap()) {
+            if (!second.isMap()) {
+                return false;
+            }
+            final Map<Object, ? extends ConfigurationNode> firstChildren = first.childrenMap();
+            final Map<Object, ? extends ConfigurationNode> secondChildren = second.childrenMap();
+            if (firstChildren.size() != secondChildren.size()) {
+                return false;
+            }
+            for (final Map.Entry<Object, ? extends ConfigurationNode> entry : firstChildren.entrySet()) {
+                final ConfigurationNode other = secondChildren.get(entry.getKey());
+                if (other == null || !ConfigurationNodes.equivalent(entry.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (first.isList()) {
+            if (!second.isList()) {
+                return false;
+            }
+            final List<? extends ConfigurationNode> firstChildren = first.childrenList();
+            final List<? extends ConfigurationNode> secondChildren = second.childrenList();
+            if (firstChildren.size() != secondChildren.size()) {
+                return false;
+            }
+            for (int i = 0; i < firstChildren.size(); i++) {
+                if (!ConfigurationNodes.equivalent(firstChildren.get(i), secondChildren.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return !second.isMap() && !second.isList() && Objects.equals(first.rawScalar(), second.rawScalar());
+    }
+
+    /**
+     * Collects the paths at which two node trees hold different values.
+     *
+     * <p>Paths are reported as shallow as possible: a key present on only one side,
+     * a list whose size changed or a node whose kind changed is reported as a whole
+     * rather than descended into. Comments are ignored.</p>
+     *
+     * @param    previous the previous tree
+     * @param    current  the current tree
+     * @return   the changed paths, relative to the root of both trees
+     */
+    static Set<NodePath> changedPaths(final ConfigurationNode previous, final ConfigurationNode current) {
+        final Set<NodePath> changes = new HashSet<>();
+        ConfigurationNodes.collectChanges(previous, current, NodePath.path(), changes);
+        return changes;
+    }
+
+    /**
+     * Checks whether a change at {@code changed} affects the subtree at {@code path},
+     * which is the case when either path is a prefix of the other.
+     *
+     * @param    path    the watched path
+     * @param    changed the changed path
+     * @return   {@code true} if the watched subtree is affected
+     */
+    static boolean overlaps(final NodePath path, final NodePath changed) {
+        final int common = Math.min(path.size(), changed.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(path.get(i), changed.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the nodes of a tree, including the root.
+     *
+     * @param node the root of the tree
+     * @return the number of nodes
+     */
+    static long count(final ConfigurationNode node) {
+        long count = 1L;
+        if (node.isMap()) {
+            for (final ConfigurationNode child : node.childrenMap().values()) {
+                count += ConfigurationNodes.count(child);
+            }
+        } else if (node.isList()) {
+            for (final ConfigurationNode child : node.childrenList()) {
+                count += ConfigurationNodes.count(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the nodes and comments of a tree.
+     *
+     * <p>Copying defaults only ever adds nodes and comments to a tree, so it
+     * changed the tree exactly when the extent grew. This is much cheaper than
+     * copying the tree to compare it afterwards.</p>
+     *
+     * @param node the root of the tree
+     * @return the number of nodes plus the number of commented nodes
+     */
+    static long extent(final ConfigurationNode node) {
+        long extent = ConfigurationNodes.comment(node) != null ? 2L : 1L;
+        if (node.isMap()) {
+            for (final ConfigurationNode child : node.childrenMap().values()) {
+                extent += ConfigurationNodes.extent(child);
+            }
+        } else if (node.isList()) {
+            for (final ConfigurationNode child : node.childrenList()) {
+                extent += ConfigurationNodes.extent(child);
+            }
+        }
+        return extent;
+    }
+
+    private static void collectChanges(final ConfigurationNode previous, final ConfigurationNode current, final NodePath path, final Set<NodePath> changes) {
+        if (previous.isMap() && current.isMap()) {
+            final Map<Object, ? extends ConfigurationNode> previousChildren = previous.childrenMap();
+            final Map<Object, ? extends ConfigurationNode> currentChildren = current.childrenMap();
+            for (final Map.Entry<Object, ? extends ConfigurationNode> entry : previousChildren.entrySet()) {
+                final ConfigurationNode other = currentChildren.get(entry.getKey());
+                if (other == null) {
+                    changes.add(path.withAppendedChild(entry.getKey()));
+                } else {
+                    ConfigurationNodes.collectChanges(entry.getValue(), other, path.withAppendedChild(entry.getKey()), changes);
+                }
+            }
+            for (final Object key : currentChildren.keySet()) {
+                if (!previousChildren.containsKey(key)) {
+                    changes.add(path.withAppendedChild(key));
+                }
+            }
+        } else if (previous.isList() && current.isList()) {
+            final List<? extends ConfigurationNode> previousChildren = previous.childrenList();
+            final List<? extends ConfigurationNode> currentChildren = current.childrenList();
+            if (previousChildren.size() != currentChildren.size()) {
+                changes.add(path);
+                return;
+            }
+            for (int i = 0; i < previousChildren.size(); i++) {
+                ConfigurationNodes.collectChanges(previousChildren.get(i), currentChildren.get(i), path.withAppendedChild(i), changes);
+            }
+        } else if (previous.isMap() || previous.isList() || current.isMap() || current.isList()
+                || !Objects.equals(previous.rawScalar(), current.rawScalar())) {
+            changes.add(path);
+        }
+    }
+
+    private static @Nullable String comment(final ConfigurationNode node) {
+        return node instanceof final CommentedConfigurationNodeIntermediary<?> commented ? commented.comment() : null;
+    }
+}
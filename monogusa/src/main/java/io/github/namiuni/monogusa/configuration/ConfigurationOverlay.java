@@ -0,0 +1,501 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import io.github.namiuni.monogusa.common.Subscription;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+
+/**
+ * A configuration whose values can be overridden by increasingly specific layers,
+ * such as per-world and per-group files on top of a base file.
+ *
+ * <p>The base and every layer file are {@link ReloadableConfiguration} sources,
+ * each backed by its own {@link ReloadableHolder}, so options such as
+ * {@link ReloadableConfiguration.ILoadable#watch(java.time.Duration)},
+ * migrations, post-processing and metrics apply to every file. Each layer is
+ * keyed, for example by world name, and creates the holder for a key on first
+ * use. A view for a combination of keys is merged once, the most specific
+ * layer taking precedence, mapped to the configuration class and cached, so
+ * repeated reads are a single map lookup. The cache is bounded and evicts the
+ * views read least recently. Whenever one of the holders publishes a new
+ * value, only the views built from it are invalidated.</p>
+ *
+ * <p>Layer files are released once no cached view is built from them, the
+ * next time the cache evicts a view, so a file is read again from disk when
+ * a view built from it is requested later.</p>
+ *
+ * <p>Defaults are never copied into layer files, which only hold the values
+ * they override; values missing from every file take the defaults of the
+ * configuration class.</p>
+ *
+ * @param <C> the type of the configuration class
+ */
+public final class ConfigurationOverlay<C> {
+
+    private static final int BASE = -1;
+
+    private final Class<C> clazz;
+    private final @Nullable TypeSerializer<C> serializer;
+    private final Source<C> base;
+    private final List<Layer<C>> layers;
+    private final int maximumSize;
+    private final Map<LayerKey, Source<C>> sources = new ConcurrentHashMap<>();
+    private final Map<List<String>, View<C>> views = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    // Guarded by lock: layer sources no cached view is built from, released on the next eviction.
+    private final Set<LayerKey> idle = new HashSet<>();
+
+    // Advanced under lock whenever a view is cached; views remember the tick they were last read at.
+    private volatile long clock;
+
+    private ConfigurationOverlay(final Builder<C> builder) {
+        this.clazz = builder.clazz;
+        this.serializer = GeneratedSerializers.find(builder.clazz).orElse(null);
+        this.layers = List.copyOf(builder.layers);
+        this.maximumSize = builder.maximumSize;
+        final LayerKey baseKey = new LayerKey(BASE, "");
+        this.base = this.source(baseKey, builder.base, true);
+        this.sources.put(baseKey, this.base);
+    }
+
+    /**
+     * Starts building an overlay.
+     *
+     * @param    clazz the {@code @ConfigSerializable} class to map merged views to
+     * @param    base  the configured builder of the base file, overridden by every layer;
+     *                 {@link ReloadableConfiguration.ILoadable#create()} must not be called
+     * @param    <C>   the type of the configuration class
+     * @return   a new builder
+     */
+    public static <C> Builder<C> builder(final Class<C> clazz, final ReloadableConfiguration.ILoadable<C> base) {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(base, "base");
+        return new Builder<>(clazz, base);
+    }
+
+    /**
+     * Returns the view for the given keys, one per layer in the order the
+     * layers were added.
+     *
+     * @param    keys the key of each layer, such as a world name and a group name
+     * @return   the merged configuration
+     * @throws   IllegalArgumentException if the number of keys does not match the number of layers
+     * @throws   UncheckedConfigurateException if a layer file cannot be loaded or the merged view cannot be mapped
+     */
+    public C get(final String... keys) {
+        if (keys.length != this.layers.size()) {
+            throw new IllegalArgumentException("Expected %d keys but got %d".formatted(this.layers.size(), keys.length));
+        }
+        final List<String> key = List.of(keys);
+        final @Nullable View<C> cached = this.views.get(key);
+        if (cached == null) {
+            return this.create(key);
+        }
+        final long now = this.clock;
+        if (cached.accessed != now) {
+            cached.accessed = now;
+        }
+        return cached.config();
+    }
+
+    /**
+     * Reloads the base file and every layer file loaded so far.
+     *
+     * <p>Each file is reloaded through its own holder, invalidating the views
+     * built from it once its new value is published.</p>
+     *
+     * @throws UncheckedConfigurateException if a file cannot be loaded, in which case its previous
+     *                                       value is kept and the remaining files are still reloaded
+     */
+    public void reload() {
+        @Nullable RuntimeException failure = null;
+        for (final Source<C> source : this.sources.values()) {
+            try {
+                source.holder().reload();
+            } catch (final RuntimeException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reloads a single layer file, invalidating only the views built from it.
+     * Files not loaded yet are left alone.
+     *
+     * @param    layer the name of the layer
+     * @param    key   the key of the file within the layer
+     * @throws   IllegalArgumentException if there is no layer with that name
+     * @throws   UncheckedConfigurateException if the file cannot be loaded, in which case its previous value is kept
+     */
+    public void reload(final String layer, final String key) {
+        final @Nullable Source<C> source = this.sources.get(new LayerKey(this.index(layer), key));
+        if (source != null) {
+            source.holder().reload();
+        }
+    }
+
+    private C create(final List<String> keys) {
+        while (true) {
+            final List<Source<C>> sources = new ArrayList<>(keys.size() + 1);
+            sources.add(this.base);
+            for (int i = 0; i < keys.size(); i++) {
+                final LayerKey layerKey = new LayerKey(i, keys.get(i));
+                final @Nullable Source<C> source = this.sources.get(layerKey);
+                sources.add(source != null ? source : this.load(layerKey));
+            }
+
+            // Captured so that the view is not cached if one of its files is reloaded meanwhile.
+            final List<C> values = new ArrayList<>(sources.size());
+            final List<ConfigurationNode> nodes = new ArrayList<>(sources.size());
+            for (final Source<C> source : sources) {
+                final C value = source.holder().get();
+                final @Nullable ConfigurationNode node = source.generations().node(value);
+                if (node == null) {
+                    break;
+                }
+                values.add(value);
+                nodes.add(node);
+            }
+            if (nodes.size() < sources.size()) {
+                // A reload was published while reading the holders; start over from the new values.
+                continue;
+            }
+
+            final C view = this.map(this.merge(nodes));
+            synchronized (this.lock) {
+                for (int i = 0; i < sources.size(); i++) {
+                    if (sources.get(i).holder().get() != values.get(i)) {
+                        return view;
+                    }
+                }
+                for (int i = 1; i < sources.size(); i++) {
+                    if (this.sources.get(new LayerKey(i - 1, keys.get(i - 1))) != sources.get(i)) {
+                        // Released by an eviction meanwhile; a later read loads the file again.
+                        return view;
+                    }
+                }
+                final @Nullable View<C> existing = this.views.get(keys);
+                if (existing != null) {
+                    return existing.config();
+                }
+                final long now = ++this.clock;
+                this.views.put(keys, new View<>(view, now));
+                for (int i = 0; i < keys.size(); i++) {
+                    final LayerKey layerKey = new LayerKey(i, keys.get(i));
+                    if (sources.get(i + 1).views++ == 0) {
+                        this.idle.remove(layerKey);
+                    }
+                }
+                if (this.views.size() > this.maximumSize) {
+                    this.evict();
+                }
+            }
+            return view;
+        }
+    }
+
+    // Guarded by lock. A linear scan, but only on misses, which merge and map a whole view anyway.
+    private void evict() {
+        @Nullable List<String> eldest = null;
+        long oldest = Long.MAX_VALUE;
+        for (final Map.Entry<List<String>, View<C>> entry : this.views.entrySet()) {
+            if (entry.getValue().accessed < oldest) {
+                oldest = entry.getValue().accessed;
+                eldest = entry.getKey();
+            }
+        }
+        if (eldest != null) {
+            this.views.remove(eldest);
+            this.release(eldest);
+        }
+        for (final LayerKey layerKey : this.idle) {
+            final Source<C> source = Objects.requireNonNull(this.sources.remove(layerKey));
+            source.subscription().unsubscribe();
+        }
+        this.idle.clear();
+    }
+
+    // Guarded by lock. Called for every view removed from the cache.
+    private void release(final List<String> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            final LayerKey layerKey = new LayerKey(i, keys.get(i));
+            final Source<C> source = Objects.requireNonNull(this.sources.get(layerKey));
+            if (--source.views == 0) {
+                this.idle.add(layerKey);
+            }
+        }
+    }
+
+    private void invalidate(final LayerKey layerKey) {
+        synchronized (this.lock) {
+            final Iterator<List<String>> iterator = this.views.keySet().iterator();
+            while (iterator.hasNext()) {
+                final List<String> keys = iterator.next();
+                if (layerKey.layer() == BASE || keys.get(layerKey.layer()).equals(layerKey.key())) {
+                    iterator.remove();
+                    this.release(keys);
+                }
+            }
+        }
+    }
+
+    // The file is read outside of the map so that loading it does not block other keys; if another thread
+    // loaded the same key meanwhile, its source is kept and this one discarded.
+    private Source<C> load(final LayerKey layerKey) {
+        final Source<C> loaded = this.source(layerKey, this.layers.get(layerKey.layer()).sources().apply(layerKey.key()), false);
+        synchronized (this.lock) {
+            final @Nullable Source<C> existing = this.sources.putIfAbsent(layerKey, loaded);
+            if (existing != null) {
+                loaded.subscription().unsubscribe();
+                return existing;
+            }
+            this.idle.add(layerKey);
+            return loaded;
+        }
+    }
+
+    private Source<C> source(final LayerKey layerKey, final ReloadableConfiguration.ILoadable<C> loadable, final boolean copyDefaults) {
+        final Generations<C> generations = new Generations<>();
+        final ReloadableHolder<C> holder = ReloadableConfiguration.unwrap(loadable).create(generations::record, copyDefaults);
+        final Subscription subscription = holder.subscribe((previous, current) -> {
+            generations.published(current);
+            this.invalidate(layerKey);
+        });
+        return new Source<>(holder, generations, subscription);
+    }
+
+    private ConfigurationNode merge(final List<ConfigurationNode> sources) {
+        // mergeFrom only fills in values that are absent, so start from the most specific layer.
+        final ConfigurationNode merged = sources.getLast().copy();
+        for (int i = sources.size() - 2; i >= 0; i--) {
+            merged.mergeFrom(sources.get(i));
+        }
+        return merged;
+    }
+
+    private C map(final ConfigurationNode node) {
+        try {
+            final @Nullable C config = this.serializer != null
+                    ? this.serializer.deserialize(this.clazz, node)
+                    : node.get(this.clazz);
+            if (config == null) {
+                throw new ConfigurateException(node, "Failed to deserialize %s from node".formatted(this.clazz.getName()));
+            }
+            return config;
+        } catch (final ConfigurateException exception) {
+            throw new UncheckedConfigurateException("Failed to map configuration overlay", exception);
+        }
+    }
+
+    private int index(final String layer) {
+        for (int i = 0; i < this.layers.size(); i++) {
+            if (this.layers.get(i).name().equals(layer)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown layer: " + layer);
+    }
+
+    /**
+     * Builds a {@link ConfigurationOverlay}.
+     *
+     * @param <C> the type of the configuration class
+     */
+    public static final class Builder<C> {
+
+        private final Class<C> clazz;
+        private final ReloadableConfiguration.ILoadable<C> base;
+        private final List<Layer<C>> layers = new ArrayList<>();
+        private int maximumSize = 1024;
+
+        private Builder(final Class<C> clazz, final ReloadableConfiguration.ILoadable<C> base) {
+            this.clazz = clazz;
+            this.base = base;
+        }
+
+        /**
+         * Adds a layer overriding the base file and every layer added before it.
+         *
+         * @param    name    the name of the layer, used by {@link ConfigurationOverlay#reload(String, String)}
+         * @param    sources creates the configured builder of the file for a key, such as a world name,
+         *                   once per key; a missing file simply overrides nothing
+         * @return   this builder
+         * @throws   IllegalArgumentException if a layer with that name was already added
+         */
+        public Builder<C> layer(final String name, final Function<String, ? extends ReloadableConfiguration.ILoadable<C>> sources) {
+            Objects.requireNonNull(name, "name");
+            Objects.requireNonNull(sources, "sources");
+            if (this.layers.stream().anyMatch(layer -> layer.name().equals(name))) {
+                throw new IllegalArgumentException("Duplicate layer: " + name);
+            }
+            this.layers.add(new Layer<>(name, sources));
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of merged views kept, 1024 by default.
+         *
+         * @param    maximumSize the maximum number of views
+         * @return   this builder
+         * @throws   IllegalArgumentException if the size is not positive
+         */
+        public Builder<C> maximumSize(final int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Creates the overlay, creating the holder of the base file. Layer files
+         * are loaded on first use.
+         *
+         * @return   the overlay
+         * @throws   UncheckedConfigurateException if the configuration class is not serializable,
+         *                                         or if the base file cannot be loaded
+         * @throws   IllegalArgumentException if the base builder was not created by {@link ReloadableConfiguration#builder()}
+         */
+        public ConfigurationOverlay<C> build() {
+            if (!this.clazz.isAnnotationPresent(ConfigSerializable.class)) {
+                final ConfigurateException exception = new ConfigurateException("Not marked with @Serializable annotation: %s".formatted(this.clazz.getName()));
+                throw new UncheckedConfigurateException("Failed to load configuration", exception);
+            }
+            return new ConfigurationOverlay<>(this);
+        }
+    }
+
+    private record Layer<C>(String name, Function<String, ? extends ReloadableConfiguration.ILoadable<C>> sources) {
+    }
+
+    private record LayerKey(int layer, String key) {
+    }
+
+    private static final class Source<C> {
+
+        private final ReloadableHolder<C> holder;
+        private final Generations<C> generations;
+        private final Subscription subscription;
+
+        // Guarded by lock: the number of cached views built from this source, unused for the base.
+        private int views;
+
+        Source(final ReloadableHolder<C> holder, final Generations<C> generations, final Subscription subscription) {
+            this.holder = holder;
+            this.generations = generations;
+            this.subscription = subscription;
+        }
+
+        ReloadableHolder<C> holder() {
+            return this.holder;
+        }
+
+        Generations<C> generations() {
+            return this.generations;
+        }
+
+        Subscription subscription() {
+            return this.subscription;
+        }
+    }
+
+    private static final class View<C> {
+
+        private final C config;
+        private volatile long accessed;
+
+        View(final C config, final long accessed) {
+            this.config = config;
+            this.accessed = accessed;
+        }
+
+        C config() {
+            return this.config;
+        }
+    }
+
+    // The node trees of the generations a holder loaded, looked up by the value it published.
+    private static final class Generations<C> {
+
+        // Guarded by this: generations loaded but not published yet, oldest first, and the last one published.
+        // Loads superseded before publishing are dropped once a later one is published, bounding the queue
+        // by the loads in flight.
+        private final Deque<Generation<C>> loaded = new ArrayDeque<>();
+        private @Nullable Generation<C> current;
+
+        synchronized void record(final C config, final ConfigurationNode node) {
+            // A reload that changed nothing yields the published value again and is never published.
+            if (this.current == null || this.current.config() != config) {
+                this.loaded.add(new Generation<>(config, node));
+            }
+        }
+
+        // Called by the holder's listener so that generations are promoted even if no view reads them.
+        void published(final C config) {
+            this.node(config);
+        }
+
+        // Null if the value was already replaced by a later generation, which holders publish in order.
+        synchronized @Nullable ConfigurationNode node(final C config) {
+            if (this.current != null && this.current.config() == config) {
+                return this.current.node();
+            }
+            for (final Generation<C> generation : this.loaded) {
+                if (generation.config() == config) {
+                    // Generations loaded before it were superseded without being published.
+                    @Nullable Generation<C> head;
+                    do {
+                        head = this.loaded.poll();
+                    } while (head != generation);
+                    this.current = generation;
+                    return generation.node();
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Generation<C>(C config, ConfigurationNode node) {
+    }
+}
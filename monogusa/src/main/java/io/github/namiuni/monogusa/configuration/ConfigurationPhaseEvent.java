@@ -0,0 +1,67 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event timing one phase of loading or saving a configuration.
+ *
+ * <p>The phases are {@code read} (reading and parsing the file, or decoding its
+ * snapshot), {@code migration} (once per applied schema version),
+ * {@code postProcess}, {@code mapping} (deserializing the node tree) and
+ * {@code save}, which runs on the background writer thread.</p>
+ */
+@Name("io.github.namiuni.monogusa.ConfigurationPhase")
+@Label("Configuration Phase")
+@Category({"Monogusa", "Configuration"})
+@Description("A phase of loading or saving a configuration")
+@StackTrace(false)
+final class ConfigurationPhaseEvent extends Event {
+
+    @Label("Configuration Class")
+    Class<?> configuration;
+
+    @Label("Phase")
+    String phase;
+
+    private ConfigurationPhaseEvent(final Class<?> configuration, final String phase) {
+        this.configuration = configuration;
+        this.phase = phase;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param configuration the configuration class being loaded
+     * @param phase         the name of the phase
+     * @return the started event, to be {@linkplain #commit() committed} once the phase ends
+     */
+    static ConfigurationPhaseEvent start(final Class<?> configuration, final String phase) {
+        final ConfigurationPhaseEvent event = new ConfigurationPhaseEvent(configuration, phase);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.Instantiation;
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Loads and reloads many configurations together.
+ *
+ * <p>Configurations are registered as builders and loaded in parallel on the
+ * registry's executor. All loaded values are published as a single snapshot, so
+ * a {@link #reloadAll()} swaps every configuration at once: the suppliers
+ * returned by {@link #register(String, ReloadableConfiguration.ILoadable)} never
+ * observe a mix of old and new files. If any configuration fails to load, the
+ * failures are reported together and the previous snapshot stays in place.</p>
+ *
+ * <p>Options bound to a single holder, such as
+ * {@link ReloadableConfiguration.ILoadable#watch(java.time.Duration)} or
+ * {@link ReloadableConfiguration.ILoadable#metrics(io.github.namiuni.monogusa.common.ReloadMetrics)},
+ * cannot be applied to registered configurations and are rejected by
+ * {@link #register(String, ReloadableConfiguration.ILoadable)}.</p>
+ */
+public final class ConfigurationRegistry {
+
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("monogusa-config-load").start(task);
+
+    private final Executor executor;
+    private final List<Registration<?>> registrations = new ArrayList<>();
+    private volatile @Nullable ReloadableHolder<Object[]> snapshot;
+
+    private ConfigurationRegistry(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a registry loading configurations on virtual threads.
+     *
+     * @return a new registry
+     */
+    public static ConfigurationRegistry create() {
+        return new ConfigurationRegistry(VIRTUAL_THREADS);
+    }
+
+    /**
+     * Creates a registry loading configurations on the given executor, which
+     * also bounds how many configurations are loaded at the same time.
+     *
+     * @param    executor the executor running the loads
+     * @return   a new registry
+     */
+    public static ConfigurationRegistry create(final Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return new ConfigurationRegistry(executor);
+    }
+
+    /**
+     * Registers a configuration.
+     *
+     * @param    id       a unique id used when reporting failures
+     * @param    loadable the configured builder; {@link ReloadableConfiguration.ILoadable#create()} must not be called
+     * @param    <C>      the type of the configuration class
+     * @return   a supplier of the configuration from the current snapshot
+     * @throws   IllegalStateException if the registry was already loaded
+     * @throws   IllegalArgumentException if the id is already registered, if the builder
+     *                                    was not created by {@link ReloadableConfiguration#builder()},
+     *                                    or if it sets {@code watch}, {@code onChange}, {@code metrics},
+     *                                    {@code trackGenerations} or {@code lazy}
+     * @throws   UncheckedConfigurateException if the configuration class is not serializable
+     */
+    public synchronized <C> Supplier<C> register(final String id, final ReloadableConfiguration.ILoadable<C> loadable) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(loadable, "loadable");
+        if (this.snapshot != null) {
+            throw new IllegalStateException("Configurations must be registered before loadAll()");
+        }
+        if (this.registrations.stream().anyMatch(registration -> registration.id().equals(id))) {
+            throw new IllegalArgumentException("Duplicate configuration id: " + id);
+        }
+
+        final Instantiation<C> instantiation = ReloadableConfiguration.unwrap(loadable).instantiation();
+        final int index = this.registrations.size();
+        this.registrations.add(new Registration<>(id, instantiation));
+        return () -> this.value(index);
+    }
+
+    /**
+     * Loads every registered configuration in parallel and publishes them.
+     *
+     * @throws ConfigurationLoadException if any configuration failed to load
+     * @throws IllegalStateException if the registry was already loaded
+     */
+    public synchronized void loadAll() throws ConfigurationLoadException {
+        if (this.snapshot != null) {
+            throw new IllegalStateException("Configurations are already loaded");
+        }
+        this.snapshot = ReloadableHolder.simple(this::loadSnapshot);
+    }
+
+    /**
+     * Reloads every registered configuration in parallel and publishes all of
+     * them in one swap.
+     *
+     * @throws ConfigurationLoadException if any configuration failed to reload,
+     *                                    in which case none of them is published
+     * @throws IllegalStateException if the registry was not loaded yet
+     */
+    public void reloadAll() throws ConfigurationLoadException {
+        this.holder().reload();
+    }
+
+    private ReloadableHolder<Object[]> holder() {
+        final ReloadableHolder<Object[]> holder = this.snapshot;
+        if (holder == null) {
+            throw new IllegalStateException("Configurations are not loaded yet");
+        }
+        return holder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C> C value(final int index) {
+        return (C) this.holder().get()[index];
+    }
+
+    private Object[] loadSnapshot() {
+        final List<CompletableFuture<?>> futures = new ArrayList<>(this.registrations.size());
+        for (final Registration<?> registration : this.registrations) {
+            futures.add(CompletableFuture.supplyAsync(registration.instantiation()::instantiate, this.executor));
+        }
+
+        final Object[] values = new Object[futures.size()];
+        final Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                values[i] = futures.get(i).join();
+            } catch (final CompletionException exception) {
+                failures.put(this.registrations.get(i).id(), exception.getCause() != null ? exception.getCause() : exception);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new ConfigurationLoadException("Failed to load configurations: " + String.join(", ", failures.keySet()), failures);
+        }
+        return values;
+    }
+
+    private record Registration<C>(String id, Instantiation<C> instantiation) {
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single daemon thread watching configuration files for all holders.
+ *
+ * <p>Bursts of modifications are coalesced per file by the registration's
+ * debounce delay, and a reload is only triggered when the content digest of
+ * the file differs from the last one acknowledged. Holders are only referenced
+ * weakly; the registration of a collected holder is dropped on the next change
+ * of its file.</p>
+ */
+final class ConfigurationWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationWatcher.class.getSimpleName());
+    private static final Object LOCK = new Object();
+    private static @Nullable ConfigurationWatcher shared;
+
+    private final WatchService watchService;
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    private final Map<Path, List<WatchedFile>> files = new HashMap<>();
+    private final Thread thread;
+
+    private ConfigurationWatcher() throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = Thread.ofPlatform()
+                .daemon()
+                .name("monogusa-config-watcher")
+                .unstarted(this::run);
+    }
+
+    /**
+     * Starts watching the given file, creating the shared watcher thread if necessary.
+     *
+     * @param    file the file to watch
+     * @throws   IOException if the parent directory cannot be registered
+     */
+    static void watch(final WatchedFile file) throws IOException {
+        synchronized (LOCK) {
+            if (shared == null) {
+                shared = new ConfigurationWatcher();
+                shared.thread.start();
+            }
+            shared.register(file);
+        }
+    }
+
+    /**
+     * Stops the shared watcher thread and drops every registration.
+     */
+    static void shutdown() {
+        final ConfigurationWatcher watcher;
+        synchronized (LOCK) {
+            watcher = shared;
+            shared = null;
+        }
+
+        if (watcher != null) {
+            try {
+                watcher.watchService.close();
+                watcher.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (final IOException exception) {
+                LOGGER.warn("Failed to close the configuration watch service", exception);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void register(final WatchedFile file) throws IOException {
+        final Path directory = file.path.getParent();
+        synchronized (this.files) {
+            if (!this.directories.containsKey(directory)) {
+                final WatchKey key = directory.register(this.watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                this.directories.put(directory, key);
+            }
+            this.files.computeIfAbsent(file.path, path -> new ArrayList<>()).add(file);
+        }
+    }
+
+    private void unregister(final WatchedFile file) {
+        final Path directory = file.path.getParent();
+        synchronized (this.files) {
+            final @Nullable List<WatchedFile> watched = this.files.get(file.path);
+            if (watched == null || !watched.remove(file) || !watched.isEmpty()) {
+                return;
+            }
+            this.files.remove(file.path);
+            if (this.files.keySet().stream().noneMatch(path -> path.getParent().equals(directory))) {
+                final @Nullable WatchKey key = this.directories.remove(directory);
+                if (key != null) {
+                    key.cancel();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final long deadline = this.nextDeadline();
+                final WatchKey key = deadline == Long.MAX_VALUE
+                        ? this.watchService.take()
+                        : this.watchService.poll(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+
+                if (key != null) {
+                    this.handle(key);
+                }
+                this.fireExpired();
+            }
+        } catch (final ClosedWatchServiceException | InterruptedException exception) {
+            synchronized (this.files) {
+                this.files.clear();
+                this.directories.clear();
+            }
+        }
+    }
+
+    private void handle(final WatchKey key) {
+        final Path directory = (Path) key.watchable();
+        final long now = System.nanoTime();
+        synchronized (this.files) {
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    this.files.forEach((path, watched) -> {
+                        if (path.getParent().equals(directory)) {
+                            watched.forEach(file -> file.schedule(now));
+                        }
+                    });
+                } else if (event.context() instanceof final Path name) {
+                    final List<WatchedFile> watched = this.files.get(directory.resolve(name));
+                    if (watched != null) {
+                        watched.forEach(file -> file.schedule(now));
+                    }
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private long nextDeadline() {
+        long deadline = Long.MAX_VALUE;
+        synchronized (this.files) {
+            for (final List<WatchedFile> watched : this.files.values()) {
+                for (final WatchedFile file : watched) {
+                    if (file.deadline != 0L) {
+                        deadline = Math.min(deadline, file.deadline);
+                    }
+                }
+            }
+        }
+        return deadline;
+    }
+
+    private void fireExpired() {
+        final List<WatchedFile> expired = new ArrayList<>();
+        final long now = System.nanoTime();
+        synchronized (this.files) {
+            for (final List<WatchedFile> watched : this.files.values()) {
+                for (final WatchedFile file : watched) {
+                    if (file.deadline != 0L && file.deadline - now <= 0L) {
+                        file.deadline = 0L;
+                        expired.add(file);
+                    }
+                }
+            }
+        }
+
+        for (final WatchedFile file : expired) {
+            final @Nullable ReloadableHolder<?> holder = file.holder.get();
+            if (holder == null) {
+                this.unregister(file);
+                continue;
+            }
+            try {
+                if (file.changed()) {
+                    holder.reloadAsync().whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            LOGGER.error("Failed to reload configuration {}", file.path, failure);
+                        }
+                    });
+                }
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Failed to reload configuration {}", file.path, exception);
+            }
+        }
+    }
+
+    /**
+     * A file registration with its debounce state and last acknowledged digest.
+     */
+    static final class WatchedFile {
+
+        private final Path path;
+        private final long debounceNanos;
+        private volatile WeakReference<? extends ReloadableHolder<?>> holder = new WeakReference<>(null);
+        private volatile byte @Nullable [] digest;
+        private long deadline;
+
+        WatchedFile(final Path path, final Duration debounce) {
+            this.path = path.toAbsolutePath().normalize();
+            this.debounceNanos = Math.max(debounce.toNanos(), 1L);
+        }
+
+        /**
+         * Sets the holder reloaded when the file content changes. It is only
+         * referenced weakly, so watching does not keep it alive.
+         *
+         * @param holder the holder to reload
+         */
+        void holder(final ReloadableHolder<?> holder) {
+            this.holder = new WeakReference<>(holder);
+        }
+
+        /**
+         * Digests the file right before it is loaded, so that edits made while
+         * loading are not mistaken for the loaded content.
+         *
+         * @return the digest, or {@code null} if the file cannot be read
+         */
+        byte @Nullable [] capture() {
+            return digest(this.path);
+        }
+
+        /**
+         * Records the content a load read as already seen.
+         *
+         * @param loaded the digest captured by {@link #capture()} before the load
+         */
+        void acknowledge(final byte @Nullable [] loaded) {
+            this.digest = loaded;
+        }
+
+        /**
+         * Records the content the holder itself just wrote back as already seen,
+         * so that the write does not trigger another reload.
+         */
+        void acknowledgeWritten() {
+            this.digest = digest(this.path);
+        }
+
+        private void schedule(final long now) {
+            final long deadline = now + this.debounceNanos;
+            this.deadline = deadline == 0L ? 1L : deadline;
+        }
+
+        private boolean changed() {
+            final byte @Nullable [] current = digest(this.path);
+            if (current == null || Arrays.equals(current, this.digest)) {
+                return false;
+            }
+            this.digest = current;
+            return true;
+        }
+
+        // Null if the file is missing or cannot be read.
+        static byte @Nullable [] digest(final Path path) {
+            try (InputStream stream = Files.newInputStream(path)) {
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+                return digest.digest();
+            } catch (final NoSuchFileException exception) {
+                return null;
+            } catch (final IOException exception) {
+                LOGGER.warn("Failed to read configuration {}", path, exception);
+                return null;
+            } catch (final NoSuchAlgorithmException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.loader.ConfigurationLoader;
+
+/**
+ * A write-behind queue saving configuration nodes and snapshots on a background thread.
+ *
+ * <p>Only the latest pending write of each target is performed, so a burst of
+ * reloads results in a single save. Every write goes through a temporary file
+ * that is atomically moved over the target (Configurate loaders built with a
+ * path already do so), so readers never observe a partially written file.</p>
+ */
+final class ConfigurationWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationWriter.class.getSimpleName());
+    private static final Map<Object, PendingWrite> PENDING = new ConcurrentHashMap<>();
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, 1, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            task -> Thread.ofPlatform().daemon().name("monogusa-config-writer").unstarted(task));
+
+    private ConfigurationWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Schedules the node to be saved by the loader, replacing any save of the same
+     * loader that has not started yet.
+     *
+     * @param loader     the loader to save with
+     * @param type       the configuration class, for the {@code save} JFR event
+     * @param node       the node to save, which must not be modified afterwards
+     * @param afterWrite an action run once the node has been written
+     */
+    static void submit(final ConfigurationLoader<?> loader, final Class<?> type, final ConfigurationNode node, final Runnable afterWrite) {
+        ConfigurationWriter.submit(loader, () -> {
+            final ConfigurationPhaseEvent event = ConfigurationPhaseEvent.start(type, "save");
+            loader.save(node);
+            event.commit();
+            afterWrite.run();
+        });
+    }
+
+    /**
+     * Schedules the bytes to be written to the file, replacing any write of the same
+     * file that has not started yet.
+     *
+     * @param file  the file to write
+     * @param bytes the content, which must not be modified afterwards
+     */
+    static void submit(final Path file, final byte[] bytes) {
+        ConfigurationWriter.submit(file.toAbsolutePath().normalize(), () -> {
+            final Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, bytes);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        });
+    }
+
+    /**
+     * Blocks until every save submitted so far has been written.
+     */
+    static void flush() {
+        try {
+            EXECUTOR.submit(() -> { }).get();
+        } catch (final ExecutionException exception) {
+            LOGGER.error("Failed to flush pending configuration writes", exception.getCause());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void submit(final Object target, final PendingWrite write) {
+        if (PENDING.put(target, write) == null) {
+            EXECUTOR.execute(() -> ConfigurationWriter.write(target));
+        }
+    }
+
+    private static void write(final Object target) {
+        final PendingWrite pending = PENDING.remove(target);
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.write();
+        } catch (final IOException exception) {
+            LOGGER.error("Failed to save {}", target, exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PendingWrite {
+
+        void write() throws IOException;
+    }
+}
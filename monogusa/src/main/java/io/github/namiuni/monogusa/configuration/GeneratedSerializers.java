@@ -0,0 +1,146 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+import org.spongepowered.configurate.serialize.TypeSerializerCollection;
+
+/**
+ * Looks up serializers generated at compile time by the {@code monogusa-processor}
+ * annotation processor.
+ *
+ * <p>For a class {@code com.example.Foo} the serializer is expected as
+ * {@code com.example.Foo_MonogusaSerializer}, nested classes joining their
+ * enclosing names with an underscore. The lookup happens once per class.</p>
+ *
+ * <p>Generated serializers only call each other directly for fields declared
+ * with a generated type; elements of collections, maps and arrays are mapped
+ * through the node's serializers. {@link #reachable(Class)} collects the
+ * generated serializers of every class reachable from a configuration class
+ * so that they can be registered with the loader's options.</p>
+ */
+final class GeneratedSerializers {
+
+    private static final String SUFFIX = "_MonogusaSerializer";
+    private static final ClassValue<Optional<TypeSerializer<?>>> SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected Optional<TypeSerializer<?>> computeValue(final Class<?> type) {
+            final String name = type.getPackageName().isEmpty()
+                    ? type.getName().replace('$', '_') + SUFFIX
+                    : type.getPackageName() + "." + type.getName().substring(type.getPackageName().length() + 1).replace('$', '_') + SUFFIX;
+            try {
+                final Class<?> serializer = Class.forName(name, true, type.getClassLoader());
+                return Optional.of((TypeSerializer<?>) serializer.getField("INSTANCE").get(null));
+            } catch (final ClassNotFoundException | NoSuchFieldException | IllegalAccessException | ClassCastException exception) {
+                return Optional.empty();
+            }
+        }
+    };
+    private static final ClassValue<TypeSerializerCollection> REACHABLE = new ClassValue<>() {
+        @Override
+        protected TypeSerializerCollection computeValue(final Class<?> type) {
+            final TypeSerializerCollection.Builder builder = TypeSerializerCollection.builder();
+            final Set<Class<?>> visited = new HashSet<>();
+            final Deque<Type> pending = new ArrayDeque<>();
+            pending.add(type);
+            while (!pending.isEmpty()) {
+                final Type next = pending.poll();
+                // Type variables are left out, the processor skips generic classes.
+                if (next instanceof final Class<?> clazz && clazz.isArray()) {
+                    pending.add(clazz.getComponentType());
+                } else if (next instanceof final Class<?> clazz) {
+                    if (clazz.isAnnotationPresent(ConfigSerializable.class) && visited.add(clazz)) {
+                        GeneratedSerializers.register(builder, clazz);
+                        GeneratedSerializers.members(clazz, pending);
+                    }
+                } else if (next instanceof final ParameterizedType parameterized) {
+                    pending.add(parameterized.getRawType());
+                    pending.addAll(List.of(parameterized.getActualTypeArguments()));
+                } else if (next instanceof final WildcardType wildcard) {
+                    pending.addAll(List.of(wildcard.getUpperBounds()));
+                } else if (next instanceof final GenericArrayType array) {
+                    pending.add(array.getGenericComponentType());
+                }
+            }
+            return builder.build();
+        }
+    };
+
+    private GeneratedSerializers() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Finds the generated serializer of the given class.
+     *
+     * @param    type the {@code @ConfigSerializable} class
+     * @param    <T>  the type of the class
+     * @return   the generated serializer, or empty if none was generated
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Optional<TypeSerializer<T>> find(final Class<T> type) {
+        return SERIALIZERS.get(type).map(serializer -> (TypeSerializer<T>) serializer);
+    }
+
+    /**
+     * Collects the generated serializers of the given class and of every
+     * {@code @ConfigSerializable} class reachable through its fields, including
+     * type arguments and array components, each registered for its exact type.
+     *
+     * @param    type the configuration class
+     * @return   the generated serializers, computed once per class
+     */
+    static TypeSerializerCollection reachable(final Class<?> type) {
+        return REACHABLE.get(type);
+    }
+
+    private static <T> void register(final TypeSerializerCollection.Builder builder, final Class<T> type) {
+        GeneratedSerializers.find(type).ifPresent(serializer -> builder.registerExact(type, serializer));
+    }
+
+    // The types the object mapper maps for a class, the same members the processor generates for.
+    private static void members(final Class<?> type, final Deque<Type> pending) {
+        if (type.isRecord()) {
+            for (final RecordComponent component : type.getRecordComponents()) {
+                pending.add(component.getGenericType());
+            }
+            return;
+        }
+        for (final Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                pending.add(field.getGenericType());
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.leangen.geantyref.GenericTypeReflector;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.serialize.SerializationException;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+import org.spongepowered.configurate.serialize.TypeSerializerCollection;
+
+/**
+ * A configuration section that is deserialized on first access rather than
+ * when the configuration is loaded.
+ *
+ * <p>Declaring a large, rarely read part of a configuration class as a
+ * {@code LazySection<T>} keeps its raw node subtree and defers mapping it to
+ * {@code T} until {@link #get()} is called; the result is cached. Reloading a
+ * huge file then mostly costs parsing. The trade-offs are that mapping errors
+ * in the section surface on first access instead of during the reload, and
+ * that defaults missing inside the section are not written back to the file.</p>
+ *
+ * <p>The serializer has to be registered with the loader:</p>
+ * <pre>{@code
+ * HoconConfigurationLoader.builder()
+ *         .defaultOptions(options -> options.serializers(builder -> builder.registerAll(LazySection.serializers())))
+ * }</pre>
+ *
+ * @param <T> the type of the section
+ */
+@NullMarked
+public final class LazySection<T> {
+
+    private static final TypeSerializerCollection SERIALIZERS = TypeSerializerCollection.builder()
+            .register(LazySection.isLazySection(), new Serializer())
+            .build();
+
+    private final @Nullable Type type;
+    private final @Nullable ConfigurationNode node;
+    private volatile @Nullable T value;
+
+    private LazySection(final @Nullable Type type, final @Nullable ConfigurationNode node, final @Nullable T value) {
+        this.type = type;
+        this.node = node;
+        this.value = value;
+    }
+
+    /**
+     * Creates a section holding an already deserialized value, typically used as
+     * the default value of a field.
+     *
+     * @param    value the value of the section
+     * @param    <T>   the type of the section
+     * @return   a section returning the value
+     */
+    public static <T> LazySection<T> of(final T value) {
+        Objects.requireNonNull(value, "value");
+        return new LazySection<>(null, null, value);
+    }
+
+    /**
+     * Returns the serializers to register with a loader so that {@code LazySection}
+     * fields can be (de)serialized.
+     *
+     * @return the serializers
+     */
+    public static TypeSerializerCollection serializers() {
+        return SERIALIZERS;
+    }
+
+    /**
+     * Returns the value of the section, deserializing it on the first call.
+     *
+     * @return the value of the section
+     * @throws UncheckedConfigurateException if the section cannot be deserialized
+     */
+    @SuppressWarnings("unchecked")
+    public T get() throws UncheckedConfigurateException {
+        final @Nullable T current = this.value;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (this.value == null) {
+                final ConfigurationNode section = Objects.requireNonNull(this.node);
+                try {
+                    // Map a copy: copying defaults must not modify a tree that may be being saved.
+                    final @Nullable Object mapped = section.copy().get(Objects.requireNonNull(this.type));
+                    if (mapped == null) {
+                        throw new SerializationException(section, this.type, "Section is empty");
+                    }
+                    this.value = (T) mapped;
+                } catch (final ConfigurateException exception) {
+                    throw new UncheckedConfigurateException("Failed to load section " + section.path(), exception);
+                }
+            }
+            return Objects.requireNonNull(this.value);
+        }
+    }
+
+    /**
+     * Returns whether the section has been deserialized already.
+     *
+     * @return {@code true} if {@link #get()} will not deserialize anything
+     */
+    public boolean isLoaded() {
+        return this.value != null;
+    }
+
+    private static Predicate<Type> isLazySection() {
+        return type -> GenericTypeReflector.erase(type) == LazySection.class;
+    }
+
+    private static final class Serializer implements TypeSerializer<LazySection<?>> {
+
+        @Override
+        public LazySection<?> deserialize(final Type type, final ConfigurationNode node) throws SerializationException {
+            if (!(type instanceof final ParameterizedType parameterized)) {
+                throw new SerializationException(node, type, "Raw LazySection types are not supported");
+            }
+            return new LazySection<>(parameterized.getActualTypeArguments()[0], node, null);
+        }
+
+        @Override
+        public void serialize(final Type type, final @Nullable LazySection<?> section, final ConfigurationNode node) throws SerializationException {
+            if (section == null) {
+                node.raw(null);
+            } else if (section.node != null) {
+                if (section.node != node) {
+                    node.from(section.node);
+                }
+            } else if (type instanceof final ParameterizedType parameterized) {
+                node.set(parameterized.getActualTypeArguments()[0], section.value);
+            } else {
+                node.set(section.value);
+            }
+        }
+    }
+}
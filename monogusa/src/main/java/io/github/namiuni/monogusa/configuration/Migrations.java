@@ -0,0 +1,101 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadMetrics;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SortedMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.serialize.Scalars;
+import org.spongepowered.configurate.transformation.ConfigurationTransformation;
+
+/**
+ * Brings loaded node trees up to the latest schema version.
+ *
+ * <p>Only the version key is read for trees that are already current, so
+ * their loads cost nothing beyond a single lookup. Every transformation that
+ * runs is timed, recorded as a {@code migration} phase event, reported to the
+ * holder's metrics and logged.</p>
+ */
+final class Migrations {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Migrations.class.getSimpleName());
+
+    private final Class<?> configuration;
+    private final ReloadMetrics metrics;
+    private final ConfigurationTransformation.Versioned transformation;
+
+    Migrations(final Class<?> configuration, final Object[] versionKey, final SortedMap<Integer, ConfigurationTransformation> versions, final ReloadMetrics metrics) {
+        this.configuration = configuration;
+        this.metrics = metrics;
+        final ConfigurationTransformation.VersionedBuilder builder = ConfigurationTransformation.versionedBuilder().versionKey(versionKey);
+        for (final Map.Entry<Integer, ConfigurationTransformation> version : versions.entrySet()) {
+            builder.addVersion(version.getKey(), this.timed(version.getKey(), version.getValue()));
+        }
+        this.transformation = builder.build();
+    }
+
+    /**
+     * Applies the migrations newer than the version stored in the node.
+     *
+     * <p>An empty node, such as that of a file which does not exist yet, has
+     * nothing to migrate and is only stamped with the latest version.</p>
+     *
+     * @param    node the root node of the loaded tree
+     * @return   {@code true} if the node was migrated or stamped, {@code false} if it was already up to date
+     * @throws   ConfigurateException if a migration fails
+     */
+    boolean apply(final ConfigurationNode node) throws ConfigurateException {
+        final int latest = this.transformation.latestVersion();
+        final int version = this.version(node);
+        if (version >= latest) {
+            return false;
+        }
+        if (node.empty()) {
+            node.node(this.transformation.versionKey()).set(latest);
+            return true;
+        }
+        this.transformation.apply(node);
+        return true;
+    }
+
+    // Reads the raw value, since a typed read would copy its default into the node when defaults are copied.
+    private int version(final ConfigurationNode node) {
+        final @Nullable Integer version = Scalars.INTEGER.tryDeserialize(node.node(this.transformation.versionKey()).raw());
+        return version != null ? version : ConfigurationTransformation.Versioned.VERSION_UNKNOWN;
+    }
+
+    private ConfigurationTransformation timed(final int version, final ConfigurationTransformation migration) {
+        return node -> {
+            final ConfigurationPhaseEvent event = ConfigurationPhaseEvent.start(this.configuration, "migration");
+            final long start = System.nanoTime();
+            migration.apply(node);
+            final long duration = System.nanoTime() - start;
+            event.commit();
+            this.metrics.migrationApplied(version, duration);
+            LOGGER.info("Migrated {} to version {} in {} ms", this.configuration.getSimpleName(), version, Duration.ofNanos(duration).toMillis());
+        };
+    }
+}
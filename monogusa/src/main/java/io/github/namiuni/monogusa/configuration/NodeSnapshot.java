@@ -0,0 +1,386 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.configurate.CommentedConfigurationNodeIntermediary;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationNodeFactory;
+import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+
+/**
+ * A compact binary copy of a loaded node tree, stored next to its source file.
+ *
+ * <p>The snapshot is keyed by the size, modification time and SHA-256 digest of
+ * the source file and by a fingerprint of the configuration class's schema.
+ * When all of them still match, the tree is decoded from a memory-mapped
+ * snapshot instead of running the loader's parser. Any mismatch or corruption
+ * makes the snapshot a miss, after which it is rewritten in the background.</p>
+ */
+final class NodeSnapshot {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeSnapshot.class.getSimpleName());
+    private static final int MAGIC = 0x4D4E4753;
+    private static final byte VERSION = 1;
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final byte NULL = 0;
+    private static final byte MAP = 1;
+    private static final byte LIST = 2;
+    private static final byte STRING = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte BOOLEAN = 8;
+
+    private final Path source;
+    private final Path snapshot;
+    private final byte[] schema;
+
+    NodeSnapshot(final Path source, final Class<?> type) {
+        this.source = source.toAbsolutePath().normalize();
+        this.snapshot = this.source.resolveSibling(this.source.getFileName() + ".snapshot");
+        this.schema = NodeSnapshot.schemaFingerprint(type);
+    }
+
+    /**
+     * Decodes the snapshot if it still matches the source file and the schema.
+     *
+     * @param    factory the factory creating the root node
+     * @param    options the options of the root node
+     * @return   the decoded tree, or {@code null} if the snapshot is missing or stale
+     */
+    @Nullable ConfigurationNode read(final ConfigurationNodeFactory<? extends ConfigurationNode> factory, final ConfigurationOptions options) {
+        try (FileChannel channel = FileChannel.open(this.snapshot, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return null;
+            }
+
+            final SourceKey key = SourceKey.stat(this.source);
+            if (key == null || buffer.getLong() != key.size() || buffer.getLong() != key.modified()) {
+                return null;
+            }
+            final byte[] sourceDigest = new byte[DIGEST_LENGTH];
+            buffer.get(sourceDigest);
+            final byte[] schemaDigest = new byte[DIGEST_LENGTH];
+            buffer.get(schemaDigest);
+            if (!Arrays.equals(schemaDigest, this.schema) || !Arrays.equals(sourceDigest, NodeSnapshot.digest(this.source))) {
+                return null;
+            }
+
+            final ConfigurationNode node = factory.createNode(options);
+            NodeSnapshot.decode(buffer, node);
+            return node;
+        } catch (final NoSuchFileException exception) {
+            return null;
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException exception) {
+            LOGGER.warn("Ignoring unreadable configuration snapshot {}", this.snapshot, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Captures the state of the source file before it is parsed.
+     *
+     * @return   the key of the source file, or {@code null} if it cannot be read
+     */
+    @Nullable SourceKey capture() {
+        try {
+            final SourceKey key = SourceKey.stat(this.source);
+            return key == null ? null : new SourceKey(key.size(), key.modified(), NodeSnapshot.digest(this.source));
+        } catch (final IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes the freshly parsed tree and writes it in the background, provided
+     * the source file did not change since {@link #capture()}.
+     *
+     * @param key  the key captured before parsing
+     * @param node the parsed tree, before any post-processing
+     */
+    void write(final SourceKey key, final ConfigurationNode node) {
+        try {
+            final SourceKey current = SourceKey.stat(this.source);
+            if (current == null || current.size() != key.size() || current.modified() != key.modified()) {
+                return;
+            }
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeLong(key.size());
+            output.writeLong(key.modified());
+            output.write(key.digest());
+            output.write(this.schema);
+            NodeSnapshot.encode(output, node);
+            output.flush();
+            ConfigurationWriter.submit(this.snapshot, bytes.toByteArray());
+        } catch (final UnsupportedValueException exception) {
+            LOGGER.debug("Not caching {}: {}", this.source, exception.getMessage());
+        } catch (final IOException exception) {
+            LOGGER.warn("Failed to encode configuration snapshot {}", this.snapshot, exception);
+        }
+    }
+
+    private static void encode(final DataOutputStream output, final ConfigurationNode node) throws IOException {
+        final @Nullable String comment = node instanceof final CommentedConfigurationNodeIntermediary<?> commented ? commented.comment() : null;
+        if (comment == null) {
+            output.writeBoolean(false);
+        } else {
+            output.writeBoolean(true);
+            NodeSnapshot.writeString(output, comment);
+        }
+
+        if (node.isMap()) {
+            final Map<Object, ? extends ConfigurationNode> children = node.childrenMap();
+            output.writeByte(MAP);
+            output.writeInt(children.size());
+            for (final Map.Entry<Object, ? extends ConfigurationNode> entry : children.entrySet()) {
+                NodeSnapshot.encodeScalar(output, entry.getKey());
+                NodeSnapshot.encode(output, entry.getValue());
+            }
+        } else if (node.isList()) {
+            final List<? extends ConfigurationNode> children = node.childrenList();
+            output.writeByte(LIST);
+            output.writeInt(children.size());
+            for (final ConfigurationNode child : children) {
+                NodeSnapshot.encode(output, child);
+            }
+        } else {
+            NodeSnapshot.encodeScalar(output, node.rawScalar());
+        }
+    }
+
+    private static void encodeScalar(final DataOutputStream output, final @Nullable Object value) throws IOException {
+        switch (value) {
+            case null -> output.writeByte(NULL);
+            case final String string -> {
+                output.writeByte(STRING);
+                NodeSnapshot.writeString(output, string);
+            }
+            case final Integer integer -> {
+                output.writeByte(INTEGER);
+                output.writeInt(integer);
+            }
+            case final Long number -> {
+                output.writeByte(LONG);
+                output.writeLong(number);
+            }
+            case final Double number -> {
+                output.writeByte(DOUBLE);
+                output.writeDouble(number);
+            }
+            case final Float number -> {
+                output.writeByte(FLOAT);
+                output.writeFloat(number);
+            }
+            case final Boolean bool -> {
+                output.writeByte(BOOLEAN);
+                output.writeBoolean(bool);
+            }
+            default -> throw new UnsupportedValueException(value.getClass());
+        }
+    }
+
+    private static void decode(final ByteBuffer buffer, final ConfigurationNode node) throws IOException {
+        if (buffer.get() != 0) {
+            final String comment = NodeSnapshot.readString(buffer);
+            if (node instanceof final CommentedConfigurationNodeIntermediary<?> commented) {
+                commented.comment(comment);
+            }
+        }
+
+        final byte tag = buffer.get();
+        switch (tag) {
+            case MAP -> {
+                final int size = buffer.getInt();
+                if (size == 0) {
+                    node.raw(Map.of());
+                }
+                for (int i = 0; i < size; i++) {
+                    final @Nullable Object key = NodeSnapshot.decodeScalar(buffer, buffer.get());
+                    if (key == null) {
+                        throw new IOException("Null map key");
+                    }
+                    NodeSnapshot.decode(buffer, node.node(key));
+                }
+            }
+            case LIST -> {
+                final int size = buffer.getInt();
+                if (size == 0) {
+                    node.raw(List.of());
+                }
+                for (int i = 0; i < size; i++) {
+                    NodeSnapshot.decode(buffer, node.appendListNode());
+                }
+            }
+            default -> node.raw(NodeSnapshot.decodeScalar(buffer, tag));
+        }
+    }
+
+    private static @Nullable Object decodeScalar(final ByteBuffer buffer, final byte tag) throws IOException {
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> NodeSnapshot.readString(buffer);
+            case INTEGER -> buffer.getInt();
+            case LONG -> buffer.getLong();
+            case DOUBLE -> buffer.getDouble();
+            case FLOAT -> buffer.getFloat();
+            case BOOLEAN -> buffer.get() != 0;
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] digest(final Path path) throws IOException {
+        try (InputStream stream = Files.newInputStream(path)) {
+            final MessageDigest digest = NodeSnapshot.sha256();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return digest.digest();
+        }
+    }
+
+    private static byte[] schemaFingerprint(final Class<?> type) {
+        final StringBuilder schema = new StringBuilder();
+        NodeSnapshot.describe(type, schema, new HashSet<>());
+        return NodeSnapshot.sha256().digest(schema.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void describe(final Class<?> type, final StringBuilder schema, final Set<Class<?>> visited) {
+        schema.append(type.getName()).append('{');
+        if (visited.add(type)) {
+            if (type.isRecord()) {
+                for (final RecordComponent component : type.getRecordComponents()) {
+                    NodeSnapshot.describeMember(component.getName(), component.getGenericType(), schema, visited);
+                }
+            } else {
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (final Field field : current.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                            NodeSnapshot.describeMember(field.getName(), field.getGenericType(), schema, visited);
+                        }
+                    }
+                }
+            }
+        }
+        schema.append('}');
+    }
+
+    private static void describeMember(final String name, final Type type, final StringBuilder schema, final Set<Class<?>> visited) {
+        schema.append(name).append(':').append(type.getTypeName()).append(';');
+        final Type raw = type instanceof final ParameterizedType parameterized ? parameterized.getRawType() : type;
+        if (raw instanceof final Class<?> clazz && clazz.isAnnotationPresent(ConfigSerializable.class)) {
+            NodeSnapshot.describe(clazz, schema, visited);
+        }
+        if (type instanceof final ParameterizedType parameterized) {
+            for (final Type argument : parameterized.getActualTypeArguments()) {
+                if (argument instanceof final Class<?> clazz && clazz.isAnnotationPresent(ConfigSerializable.class)) {
+                    NodeSnapshot.describe(clazz, schema, visited);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * The state of a source file a snapshot was made from.
+     *
+     * @param size     the file size in bytes
+     * @param modified the modification time in microseconds
+     * @param digest   the SHA-256 digest of the content, empty when only stat-ed
+     */
+    record SourceKey(long size, long modified, byte[] digest) {
+
+        private static @Nullable SourceKey stat(final Path path) throws IOException {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new SourceKey(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS), new byte[0]);
+            } catch (final NoSuchFileException exception) {
+                return null;
+            }
+        }
+    }
+
+    private static final class UnsupportedValueException extends IOException {
+
+        private static final long serialVersionUID = 2400462302434817312L;
+
+        UnsupportedValueException(final Class<?> type) {
+            super("Unsupported scalar type " + type.getName());
+        }
+    }
+}
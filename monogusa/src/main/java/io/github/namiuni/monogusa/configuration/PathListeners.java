@@ -0,0 +1,116 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadListener;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodePath;
+
+/**
+ * Dispatches reloads to listeners scoped to a subtree of the configuration.
+ *
+ * <p>The node tree of every published generation is diffed once against the
+ * last published one, and a listener is only notified if one of the changed
+ * paths overlaps the path it was registered for. Generations are recorded
+ * when loaded but only diffed when published, as loads may complete before
+ * earlier ones are applied.</p>
+ *
+ * @param <C> the type of the configuration class
+ */
+final class PathListeners<C> implements ReloadListener<C> {
+
+    private final List<Entry<C>> entries;
+    // Guarded by this: loaded generations not published yet, oldest first, and the last one published.
+    private final Deque<Generation<C>> loaded = new ArrayDeque<>();
+    private @Nullable Generation<C> published;
+
+    PathListeners(final List<Entry<C>> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    /**
+     * Records a newly loaded generation, to be diffed once it is published.
+     *
+     * @param config the configuration mapped from the node
+     * @param node   the final node tree of the generation
+     */
+    synchronized void record(final C config, final ConfigurationNode node) {
+        this.loaded.add(new Generation<>(config, node));
+    }
+
+    @Override
+    public void onReload(final C previous, final C current) {
+        final Set<NodePath> changes;
+        synchronized (this) {
+            // Generations loaded before the current one were superseded without being published, except for
+            // the very first one, which the holder publishes without notifying listeners.
+            @Nullable Generation<C> base = this.published;
+            @Nullable Generation<C> target = null;
+            for (final Generation<C> generation : this.loaded) {
+                if (generation.config() == current) {
+                    target = generation;
+                    break;
+                }
+                if (base == null && generation.config() == previous) {
+                    base = generation;
+                }
+            }
+            if (target == null) {
+                // Not recorded by this builder's loads; later generations are left for their own publish.
+                return;
+            }
+            @Nullable Generation<C> head;
+            do {
+                head = this.loaded.poll();
+            } while (head != target);
+            this.published = target;
+            if (base == null) {
+                return;
+            }
+            changes = ConfigurationNodes.changedPaths(base.node(), target.node());
+        }
+
+        for (final Entry<C> entry : this.entries) {
+            if (PathListeners.affects(changes, entry.path())) {
+                entry.listener().onReload(previous, current);
+            }
+        }
+    }
+
+    private static boolean affects(final Set<NodePath> changes, final NodePath path) {
+        for (final NodePath changed : changes) {
+            if (ConfigurationNodes.overlaps(path, changed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Entry<C>(NodePath path, ReloadListener<? super C> listener) {
+    }
+
+    private record Generation<C>(C config, ConfigurationNode node) {
+    }
+}
@@ -19,16 +19,35 @@
  */
 package io.github.namiuni.monogusa.configuration;
 
+import io.github.namiuni.monogusa.common.GenerationTracking;
 import io.github.namiuni.monogusa.common.Instantiation;
+import io.github.namiuni.monogusa.common.ReloadListener;
+import io.github.namiuni.monogusa.common.ReloadMetrics;
 import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.NodePath;
 import org.spongepowered.configurate.loader.ConfigurationLoader;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+import org.spongepowered.configurate.transformation.ConfigurationTransformation;
 
 /**
  * A factory and builder for creating a {@link ReloadableHolder} for a
@@ -55,6 +74,59 @@ public final class ReloadableConfiguration {
         return new Builder<>();
     }
 
+    /**
+     * Stops the shared file watcher used by {@link ILoadable#watch(Duration)} and
+     * waits for configuration files still being saved in the background.
+     *
+     * <p>This should be called when the owning plugin is disabled. Holders created
+     * afterwards start a new watcher on demand.</p>
+     */
+    public static void shutdown() {
+        ConfigurationWatcher.shutdown();
+        ConfigurationWriter.flush();
+    }
+
+    /**
+     * Starts recording which file content the values of a holder are loaded
+     * from, for comparing the content of several processes loading the same
+     * file.
+     *
+     * <p>From then on, every load digests the file right before and right
+     * after reading it. The returned function gives the hex-encoded SHA-256
+     * digest of the content a value was loaded from, or an empty string if the
+     * file was missing. It returns {@code null} for values loaded before this
+     * call, and for loads during which the file was edited, since what they
+     * read is unknown.</p>
+     *
+     * @param    holder a holder created by {@link ILoadable#create()} with {@link ILoadable#path(Path)}
+     * @return   the digest lookup, or empty if the holder does not load from a file
+     */
+    public static Optional<Function<Object, @Nullable String>> sourceDigests(final ReloadableHolder<?> holder) {
+        Objects.requireNonNull(holder, "holder");
+        final @Nullable SourceDigests digests = SourceDigests.of(holder);
+        if (digests == null) {
+            return Optional.empty();
+        }
+        digests.enable();
+        return Optional.of(digests::digest);
+    }
+
+    /**
+     * Returns the builder behind a loadable stage, for components composing
+     * several configurations.
+     *
+     * @param    loadable the final builder stage
+     * @param    <C>      the type of the configuration class
+     * @return   the builder
+     * @throws   IllegalArgumentException if the stage was not created by {@link #builder()}
+     */
+    static <C> Builder<?, C> unwrap(final ILoadable<C> loadable) {
+        if (!(loadable instanceof final Builder<?, C> builder)) {
+            throw new IllegalArgumentException("Not created by ReloadableConfiguration.builder(): " + loadable.getClass().getName());
+        }
+        return builder;
+    }
+
     /**
      * The first step: specifying the {@link ConfigurationLoader}.
      *
@@ -105,21 +177,202 @@ public final class ReloadableConfiguration {
          */
         ILoadable<C> postProcess(Consumer<ConfigurationNode> nodeConsumer);
 
+        /**
+         * Sets the path of the node holding the schema version, {@code version}
+         * by default.
+         *
+         * @param path the path of the version node, relative to the root node
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> versionKey(Object... path);
+
+        /**
+         * Registers the transformation upgrading the configuration to the given
+         * schema version.
+         *
+         * <p>Before post-processing, the version key is read and only the
+         * transformations for newer versions are applied, in ascending order,
+         * after which the key is set to the latest version and the file written
+         * back. Files that are already current are not walked at all. Each
+         * applied migration is timed, logged and reported to
+         * {@link ReloadMetrics#migrationApplied(int, long)}.</p>
+         *
+         * @param version        the schema version the transformation upgrades to
+         * @param transformation the transformation, typically built with {@link ConfigurationTransformation#builder()}
+         * @return The current builder instance for further chaining.
+         * @throws IllegalArgumentException if a migration to the version was already registered
+         */
+        ILoadable<C> migration(int version, ConfigurationTransformation transformation);
+
+        /**
+         * Declares the file the loader reads from and writes to.
+         *
+         * <p>This is required by file-based options such as {@link #watch(Duration)}.</p>
+         *
+         * @param path the configuration file
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> path(Path path);
+
+        /**
+         * Reloads the holder automatically when the file declared by {@link #path(Path)}
+         * changes on disk.
+         *
+         * <p>Bursts of writes are coalesced until the file has been quiet for the
+         * given delay, and the reload is skipped entirely when the content is
+         * unchanged, including writes made by the holder itself. All holders share
+         * a single watcher thread, which is stopped by {@link ReloadableConfiguration#shutdown()}.
+         * The watcher only references the holder weakly, so a holder that is no
+         * longer used stops being reloaded once garbage collected.</p>
+         *
+         * @param debounce the quiet period to wait for before reloading
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> watch(Duration debounce);
+
+        /**
+         * Registers a listener notified only when the subtree at the given path
+         * changed during a reload.
+         *
+         * <p>The node trees of the previous and the new generation are diffed once
+         * per reload, and the listener is called after the new value has been
+         * published if a value at, below or above the path differs. Listeners
+         * interested in every reload can use {@link ReloadableHolder#subscribe(ReloadListener)}
+         * on the created holder instead.</p>
+         *
+         * @param path     the path of the subtree, relative to the root node
+         * @param listener the listener to notify
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> onChange(NodePath path, ReloadListener<? super C> listener);
+
+        /**
+         * Keeps a binary snapshot of the parsed node tree next to the file declared
+         * by {@link #path(Path)}, named after it with a {@code .snapshot} suffix.
+         *
+         * <p>While the file's size, modification time and digest as well as the
+         * fields of the configuration class are unchanged, loads decode the
+         * snapshot instead of parsing the file. The snapshot holds the tree as
+         * read from disk, so {@link #postProcess(Consumer)} and default values are
+         * applied on every load as usual. Trees containing scalar types other than
+         * strings, numbers and booleans are not cached.</p>
+         *
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> snapshotCache();
+
+        /**
+         * Reports the loads of the created holder to the given metrics.
+         *
+         * <p>Besides durations and failures, the metrics receive the size of the
+         * file declared by {@link #path(Path)} and the number of nodes read from
+         * it. Regardless of this option, every phase of a load is recorded as an
+         * {@code io.github.namiuni.monogusa.ConfigurationPhase} JFR event.</p>
+         *
+         * @param metrics the metrics, such as {@link ReloadMetrics#counting()}
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> metrics(ReloadMetrics metrics);
+
+        /**
+         * Tracks the configuration instances replaced by reloads and reports
+         * those still reachable to the metrics set by {@link #metrics(ReloadMetrics)}.
+         *
+         * <p>With {@link GenerationTracking#CALL_SITES}, the callers that read a
+         * retained instance are logged as well.</p>
+         *
+         * @param tracking how closely replaced instances are tracked
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> trackGenerations(GenerationTracking tracking);
+
+        /**
+         * Defers loading the configuration until the created holder is first read.
+         *
+         * <p>Configurations of disabled or rarely used modules then cost nothing
+         * during bootstrap, but errors in the file only surface on first access
+         * instead of from {@link #create()}. See {@link ReloadableHolder#lazy(Instantiation)}.</p>
+         *
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> lazy();
+
+        /**
+         * Reuses objects from the previous generation for sections whose nodes
+         * did not change during a reload.
+         *
+         * <p>Records, {@code @ConfigSerializable} classes and Adventure components
+         * mapped from an unchanged subtree keep their identity across reloads
+         * and are not mapped again, so caches keyed by them stay valid and a
+         * reload only allocates what changed. If the whole file is unchanged,
+         * the previous configuration instance is published again. Shared
+         * objects belong to several generations, so this must only be used
+         * when mapped objects are never mutated.</p>
+         *
+         * <p>Sections are mapped through the loader's serializers, so a
+         * serializer generated by {@code monogusa-processor} is not used while
+         * this option is enabled.</p>
+         *
+         * @return The current builder instance for further chaining.
+         */
+        ILoadable<C> structuralSharing();
+
         /**
          * Creates the {@link ReloadableHolder}. This method triggers the initial
-         * load of the configuration.
+         * load of the configuration, unless {@link #lazy()} is used.
+         *
+         * <p>The file is only written back when copying defaults or post-processing
+         * changed the loaded node, and the write happens on a background thread.</p>
+         *
+         * <p>If the {@code monogusa-processor} annotation processor generated a
+         * serializer for the configuration class, it is used instead of
+         * Configurate's reflective object mapper, and the serializers generated
+         * for the classes reachable from it, such as the elements of a
+         * {@code List<Foo>}, are registered with the loader's options.</p>
+         *
+         * <p>A load fails with an {@link UncheckedConfigurateException} when the
+         * file cannot be read or mapped, or when a migration throws a
+         * {@link ConfigurateException}; exceptions thrown by the
+         * {@linkplain #postProcess(Consumer) post-processor} are propagated as is.
+         * This applies to the initial load, which a {@linkplain #lazy() lazy}
+         * holder runs on its first read, and to reloads, which keep the previous
+         * value when they fail. A failed load never writes the file back, so a
+         * file whose migration failed is left at its previous version.</p>
+         *
+         * <p>Other failures do not fail a load. An unreadable, stale or corrupted
+         * {@linkplain #snapshotCache() snapshot} is ignored and the file is parsed
+         * instead, and a snapshot or write-back that cannot be written is logged
+         * while the loaded value is still published. If the file cannot be
+         * {@linkplain #watch(Duration) watched}, this method throws an
+         * {@link UncheckedIOException} after the initial load; reloads triggered
+         * by the watcher that fail are logged.</p>
          *
          * @return a fully configured, reloadable holder for the configuration
-         * @throws UncheckedConfigurateException if the initial load fails
+         * @throws UncheckedConfigurateException if the initial load fails, or if the class is not serializable
+         * @throws UncheckedIOException if the file cannot be watched
+         * @throws IllegalStateException if {@link #watch(Duration)} or {@link #snapshotCache()}
+         *                               is used without {@link #path(Path)}
          */
         ReloadableHolder<C> create() throws UncheckedConfigurateException;
     }
 
-    private static final class Builder<L extends ConfigurationLoader<? extends ConfigurationNode>, C> implements IConfigurationLoader<L>, IConfigurationClass, ILoadable<C> {
+    static final class Builder<L extends ConfigurationLoader<? extends ConfigurationNode>, C> implements IConfigurationLoader<L>, IConfigurationClass, ILoadable<C> {
 
         private L loader;
         private @SuppressWarnings("NotNullFieldNotInitialized") Class<C> clazz;
         private @Nullable Consumer<ConfigurationNode> nodeConsumer;
+        private Object[] versionKey = {"version"};
+        private final SortedMap<Integer, ConfigurationTransformation> migrations = new TreeMap<>();
+        private @Nullable Path path;
+        private @Nullable Duration watchDebounce;
+        private boolean snapshotCache;
+        private ReloadMetrics metrics = ReloadMetrics.noop();
+        private boolean lazy;
+        private GenerationTracking tracking = GenerationTracking.DISABLED;
+        private boolean structuralSharing;
+        private final List<PathListeners.Entry<C>> pathListeners = new ArrayList<>();
+        private @Nullable BiConsumer<C, ConfigurationNode> recorder;
+        private boolean copyDefaults = true;
 
         @Override
         public IConfigurationClass loader(final L loader) {
@@ -142,31 +395,312 @@ public final class ReloadableConfiguration {
             return this;
         }
 
-        public ReloadableHolder<C> create() throws UncheckedConfigurateException { // TODO: Seek the best exception handling.
-            final Instantiation<@Nullable C> instantiate = () -> {
+        @Override
+        public ILoadable<C> versionKey(final Object... path) {
+            Objects.requireNonNull(path, "path");
+            this.versionKey = path.clone();
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> migration(final int version, final ConfigurationTransformation transformation) {
+            Objects.requireNonNull(transformation, "transformation");
+            if (this.migrations.putIfAbsent(version, transformation) != null) {
+                throw new IllegalArgumentException("A migration to version %d is already registered".formatted(version));
+            }
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> path(final Path path) {
+            Objects.requireNonNull(path, "path");
+            this.path = path;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> watch(final Duration debounce) {
+            Objects.requireNonNull(debounce, "debounce");
+            this.watchDebounce = debounce;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> onChange(final NodePath path, final ReloadListener<? super C> listener) {
+            Objects.requireNonNull(path, "path");
+            Objects.requireNonNull(listener, "listener");
+            this.pathListeners.add(new PathListeners.Entry<>(path, listener));
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> snapshotCache() {
+            this.snapshotCache = true;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> metrics(final ReloadMetrics metrics) {
+            Objects.requireNonNull(metrics, "metrics");
+            this.metrics = metrics;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> trackGenerations(final GenerationTracking tracking) {
+            Objects.requireNonNull(tracking, "tracking");
+            this.tracking = tracking;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> lazy() {
+            this.lazy = true;
+            return this;
+        }
+
+        @Override
+        public ILoadable<C> structuralSharing() {
+            this.structuralSharing = true;
+            return this;
+        }
+
+        @Override
+        public ReloadableHolder<C> create() throws UncheckedConfigurateException {
+            final @Nullable TypeSerializer<C> serializer = this.serializer();
+            final @Nullable NodeSnapshot snapshot = this.snapshot();
+
+            final ConfigurationWatcher.@Nullable WatchedFile watchedFile;
+            if (this.watchDebounce != null) {
+                if (this.path == null) {
+                    throw new IllegalStateException("watch(Duration) requires path(Path)");
+                }
+                watchedFile = new ConfigurationWatcher.WatchedFile(this.path, this.watchDebounce);
+            } else {
+                watchedFile = null;
+            }
+            final @Nullable PathListeners<C> pathListeners = this.pathListeners.isEmpty() ? null : new PathListeners<>(this.pathListeners);
+
+            // Generations become the base of structural sharing once published, so superseded loads never are.
+            final @Nullable StructuralSharing sharing = this.structuralSharing ? new StructuralSharing(false) : null;
+            final @Nullable SourceDigests digests = this.path != null ? new SourceDigests(this.path) : null;
+            final Instantiation<C> instantiation = this.instantiation(serializer, snapshot, watchedFile, pathListeners, sharing, digests, this.metrics != ReloadMetrics.noop());
+            final ReloadableHolder<C> holder = this.lazy
+                    ? ReloadableHolder.lazy(instantiation, this.metrics, this.tracking)
+                    : ReloadableHolder.simple(instantiation, this.metrics, this.tracking);
+            if (digests != null) {
+                SourceDigests.register(holder, digests);
+            }
+            if (pathListeners != null) {
+                holder.subscribe(pathListeners);
+            }
+            if (sharing != null) {
+                holder.subscribe((previous, current) -> sharing.published(current));
+            }
+            if (watchedFile != null) {
+                watchedFile.holder(holder);
                 try {
-                    final ConfigurationNode rootNode = this.loader.load();
+                    ConfigurationWatcher.watch(watchedFile);
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException("Failed to watch configuration", exception);
+                }
+            }
+            return holder;
+        }
+
+        /**
+         * Creates the holder, additionally passing every loaded configuration
+         * together with its final node tree to the recorder, for combining
+         * several configurations node by node.
+         *
+         * @param recorder     receives each loaded configuration and the node tree it was mapped from
+         * @param copyDefaults whether defaults may be copied into the node tree as the loader's options
+         *                     request; files overriding another configuration must only hold the values
+         *                     they override
+         * @return a fully configured, reloadable holder for the configuration
+         * @throws UncheckedConfigurateException if the initial load fails, or if the class is not serializable
+         */
+        ReloadableHolder<C> create(final BiConsumer<C, ConfigurationNode> recorder, final boolean copyDefaults) throws UncheckedConfigurateException {
+            this.recorder = recorder;
+            this.copyDefaults = copyDefaults;
+            return this.create();
+        }
 
-                    if (!this.clazz.isAnnotationPresent(ConfigSerializable.class)) {
-                        throw new ConfigurateException(rootNode, "Not marked with @Serializable annotation: %s".formatted(this.clazz.getName()));
+        /**
+         * Builds the instantiation loading the configuration without creating a holder,
+         * for composing several configurations into a single holder.
+         *
+         * <p>Options bound to a holder, {@link #watch(Duration)},
+         * {@link #onChange(NodePath, ReloadListener)}, {@link #metrics(ReloadMetrics)},
+         * {@link #trackGenerations(GenerationTracking)} and {@link #lazy()}, cannot
+         * be applied to an instantiation and are rejected.</p>
+         *
+         * @return the instantiation loading a new configuration instance on every call
+         * @throws IllegalArgumentException if an option bound to a holder is set
+         * @throws UncheckedConfigurateException if the configuration class is not serializable
+         */
+        Instantiation<C> instantiation() throws UncheckedConfigurateException {
+            final List<String> holderOptions = new ArrayList<>();
+            if (this.watchDebounce != null) {
+                holderOptions.add("watch");
+            }
+            if (!this.pathListeners.isEmpty()) {
+                holderOptions.add("onChange");
+            }
+            if (this.metrics != ReloadMetrics.noop()) {
+                holderOptions.add("metrics");
+            }
+            if (this.tracking != GenerationTracking.DISABLED) {
+                holderOptions.add("trackGenerations");
+            }
+            if (this.lazy) {
+                holderOptions.add("lazy");
+            }
+            if (!holderOptions.isEmpty()) {
+                throw new IllegalArgumentException("Options bound to a holder cannot be applied to %s: %s"
+                    .formatted(this.clazz.getName(), String.join(", ", holderOptions)));
+            }
+            // The aggregate holder publishes every load it does not supersede, so generations are committed when loaded.
+            final @Nullable StructuralSharing sharing = this.structuralSharing ? new StructuralSharing(true) : null;
+            return this.instantiation(this.serializer(), this.snapshot(), null, null, sharing, null, false);
+        }
+
+        private @Nullable NodeSnapshot snapshot() {
+            if (!this.snapshotCache) {
+                return null;
+            }
+            if (this.path == null) {
+                throw new IllegalStateException("snapshotCache() requires path(Path)");
+            }
+            return new NodeSnapshot(this.path, this.clazz);
+        }
+
+        private @Nullable TypeSerializer<C> serializer() throws UncheckedConfigurateException {
+            if (!this.clazz.isAnnotationPresent(ConfigSerializable.class)) {
+                final ConfigurateException exception = new ConfigurateException("Not marked with @Serializable annotation: %s".formatted(this.clazz.getName()));
+                throw new UncheckedConfigurateException("Failed to load configuration", exception);
+            }
+            // Prefer a serializer generated by monogusa-processor over the reflective object mapper.
+            return GeneratedSerializers.find(this.clazz).orElse(null);
+        }
+
+        private Instantiation<C> instantiation(
+                final @Nullable TypeSerializer<C> serializer,
+                final @Nullable NodeSnapshot snapshot,
+                final ConfigurationWatcher.@Nullable WatchedFile watchedFile,
+                final @Nullable PathListeners<C> pathListeners,
+                final @Nullable StructuralSharing sharing,
+                final @Nullable SourceDigests digests,
+                final boolean metrics
+        ) {
+            final @Nullable Migrations migrations = this.migrations.isEmpty()
+                    ? null
+                    : new Migrations(this.clazz, this.versionKey, this.migrations, this.metrics);
+            final @Nullable BiConsumer<C, ConfigurationNode> recorder = this.recorder;
+            final boolean copyDefaults = this.copyDefaults;
+            final ConfigurationOptions defaults = copyDefaults ? this.loader.defaultOptions() : this.loader.defaultOptions().shouldCopyDefaults(false);
+            // Also map nested generated types, such as elements of lists and maps, without the reflective object mapper.
+            final ConfigurationOptions options = serializer != null && sharing == null
+                    ? defaults.serializers(builder -> builder.registerAll(GeneratedSerializers.reachable(this.clazz)))
+                    : defaults;
+            return () -> {
+                try {
+                    final StructuralSharing.@Nullable Generation generation = sharing != null ? sharing.begin(options) : null;
+                    final byte @Nullable [] loadedDigest = watchedFile != null ? watchedFile.capture() : null;
+                    final boolean digesting = digests != null && digests.enabled();
+                    final byte @Nullable [] sourceBefore = !digesting ? null : watchedFile != null ? loadedDigest : digests.capture();
+                    final ConfigurationPhaseEvent read = ConfigurationPhaseEvent.start(this.clazz, "read");
+                    final ConfigurationNode rootNode = this.load(snapshot, generation != null ? generation.options() : options);
+                    read.commit();
+                    final byte @Nullable [] sourceAfter = digesting ? digests.capture() : null;
+                    if (metrics) {
+                        this.metrics.sourceLoaded(this.fileSize(), ConfigurationNodes.count(rootNode));
                     }
 
+                    // Migrations report whether they changed the tree and copying defaults only grows it, but an
+                    // arbitrary post-processor can do anything, so the tree is only copied to compare when one is set.
+                    final @Nullable ConfigurationNode loadedNode = this.nodeConsumer != null ? rootNode.copy() : null;
+                    final boolean migrated = migrations != null && migrations.apply(rootNode);
                     if (this.nodeConsumer != null) {
+                        final ConfigurationPhaseEvent postProcess = ConfigurationPhaseEvent.start(this.clazz, "postProcess");
                         this.nodeConsumer.accept(rootNode);
+                        postProcess.commit();
                     }
+                    final long extent = loadedNode == null && rootNode.options().shouldCopyDefaults() ? ConfigurationNodes.extent(rootNode) : -1L;
 
-                    final C config = rootNode.get(this.clazz);
+                    final ConfigurationPhaseEvent mapping = ConfigurationPhaseEvent.start(this.clazz, "mapping");
+                    final @Nullable C unchanged = generation != null ? generation.prepare(rootNode) : null;
+                    final @Nullable C config;
+                    if (unchanged != null) {
+                        config = unchanged;
+                    } else if (serializer != null && generation == null) {
+                        config = serializer.deserialize(this.clazz, rootNode);
+                    } else {
+                        // Generated serializers call nested ones directly, which would bypass structural sharing.
+                        config = rootNode.get(this.clazz);
+                    }
+                    mapping.commit();
                     if (config == null) {
                         throw new ConfigurateException(rootNode, "Failed to deserialize %s from node".formatted(this.clazz.getName()));
                     }
-                    this.loader.save(rootNode);
+                    if (generation != null) {
+                        generation.commit(rootNode, config);
+                    }
+
+                    // Only write back when migrations, copied defaults or the post-processor changed something.
+                    final boolean changed = loadedNode != null
+                            ? !ConfigurationNodes.equivalent(loadedNode, rootNode)
+                            : migrated || extent >= 0L && ConfigurationNodes.extent(rootNode) != extent;
+                    if (changed) {
+                        ConfigurationWriter.submit(this.loader, this.clazz, rootNode, watchedFile != null ? watchedFile::acknowledgeWritten : () -> { });
+                    } else if (watchedFile != null) {
+                        watchedFile.acknowledge(loadedDigest);
+                    }
+
+                    if (pathListeners != null) {
+                        pathListeners.record(config, rootNode);
+                    }
+                    if (recorder != null) {
+                        recorder.accept(config, rootNode);
+                    }
+                    if (digesting) {
+                        digests.record(config, sourceBefore, sourceAfter);
+                    }
                     return config;
                 } catch (final ConfigurateException exception) {
                     throw new UncheckedConfigurateException("Failed to load configuration", exception);
                 }
             };
+        }
+
+        private long fileSize() {
+            if (this.path == null) {
+                return -1L;
+            }
+            try {
+                return Files.size(this.path);
+            } catch (final IOException exception) {
+                return -1L;
+            }
+        }
+
+        private ConfigurationNode load(final @Nullable NodeSnapshot snapshot, final ConfigurationOptions options) throws ConfigurateException {
+            if (snapshot == null) {
+                return this.loader.load(options);
+            }
+
+            final @Nullable ConfigurationNode cached = snapshot.read(this.loader, options);
+            if (cached != null) {
+                return cached;
+            }
 
-            return ReloadableHolder.simple(instantiate);
+            // Capture the file state before parsing so a concurrent edit is never cached under the new key.
+            final NodeSnapshot.@Nullable SourceKey key = snapshot.capture();
+            final ConfigurationNode rootNode = this.loader.load(options);
+            if (key != null) {
+                snapshot.write(key, rootNode);
+            }
+            return rootNode;
         }
     }
 }
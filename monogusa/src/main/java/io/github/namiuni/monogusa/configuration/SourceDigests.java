@@ -0,0 +1,160 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The digests of the file content the values of a holder were loaded from.
+ *
+ * <p>Nothing is digested until {@link #enable()} is called, so holders
+ * nobody asks about pay nothing.</p>
+ */
+final class SourceDigests {
+
+    private static final Map<ReloadableHolder<?>, SourceDigests> HOLDERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final String MISSING = "";
+
+    private final Path path;
+    private volatile boolean enabled;
+
+    // Guarded by this: loads not published yet, oldest first, and the last one published.
+    private final Deque<Entry> loaded = new ArrayDeque<>();
+    private @Nullable Entry current;
+
+    SourceDigests(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Associates the digests with the holder whose loads record them.
+     *
+     * @param holder  the holder
+     * @param digests the digests recorded by its loads
+     */
+    static void register(final ReloadableHolder<?> holder, final SourceDigests digests) {
+        holder.subscribe((previous, current) -> digests.published(current));
+        HOLDERS.put(holder, digests);
+    }
+
+    /**
+     * Returns the digests recorded by the loads of a holder.
+     *
+     * @param holder the holder
+     * @return the digests, or {@code null} if the holder does not load from a file
+     */
+    static @Nullable SourceDigests of(final ReloadableHolder<?> holder) {
+        return HOLDERS.get(holder);
+    }
+
+    /**
+     * Starts digesting the file on every load.
+     */
+    void enable() {
+        this.enabled = true;
+    }
+
+    /**
+     * Checks whether loads should digest the file.
+     *
+     * @return {@code true} once enabled
+     */
+    boolean enabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Digests the file, right before and right after it is read.
+     *
+     * @return the digest, or {@code null} if the file is missing or cannot be read
+     */
+    byte @Nullable [] capture() {
+        return ConfigurationWatcher.WatchedFile.digest(this.path);
+    }
+
+    /**
+     * Records the content a load read.
+     *
+     * @param config the loaded configuration
+     * @param before the digest captured right before the file was read
+     * @param after  the digest captured right after the file was read
+     */
+    synchronized void record(final Object config, final byte @Nullable [] before, final byte @Nullable [] after) {
+        // A reload that changed nothing yields the published value again and is never published.
+        if (this.current != null && this.current.config() == config) {
+            return;
+        }
+        final @Nullable String digest;
+        if (!Arrays.equals(before, after)) {
+            // Edited while being read, so what was read is unknown.
+            digest = null;
+        } else {
+            digest = before != null ? HexFormat.of().formatHex(before) : MISSING;
+        }
+        this.loaded.add(new Entry(config, digest));
+    }
+
+    /**
+     * Returns the digest of the file content a value was loaded from.
+     *
+     * @param config a value of the holder
+     * @return the hex-encoded SHA-256 digest, empty for a missing file, or {@code null}
+     *         if unknown
+     */
+    synchronized @Nullable String digest(final Object config) {
+        if (this.current != null && this.current.config() == config) {
+            return this.current.digest();
+        }
+        for (final Entry entry : this.loaded) {
+            if (entry.config() == config) {
+                return entry.digest();
+            }
+        }
+        return null;
+    }
+
+    private synchronized void published(final Object config) {
+        for (final Entry entry : this.loaded) {
+            if (entry.config() == config) {
+                // Loads before it were superseded without being published.
+                @Nullable Entry head;
+                do {
+                    head = this.loaded.poll();
+                } while (head != entry);
+                this.current = entry;
+                return;
+            }
+        }
+        // Loaded before digests were enabled.
+        this.current = null;
+    }
+
+    private record Entry(Object config, @Nullable String digest) {
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.leangen.geantyref.GenericTypeReflector;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.serialize.SerializationException;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+import org.spongepowered.configurate.serialize.TypeSerializerCollection;
+
+/**
+ * Reuses the objects mapped by the previous generation for subtrees whose
+ * nodes did not change.
+ *
+ * <p>Records, {@code @ConfigSerializable} classes and Adventure components are
+ * mapped through an intercepting serializer registered on the loaded nodes.
+ * When the subtree of such a value is unchanged since the previous load, the
+ * previous instance is returned without descending into it, so unchanged
+ * sections keep their identity and nothing is allocated for them. When the
+ * whole tree is unchanged, the previous configuration itself is reused.</p>
+ *
+ * <p>Loads of a holder may overlap, for example when a lazy holder is first
+ * read while a reload is running. Each load therefore compares against the
+ * generation last committed when it began, which is swapped as a whole. A
+ * loaded generation is only committed once the holder publishes it, so a
+ * load superseded before being published never becomes the base.</p>
+ */
+final class StructuralSharing {
+
+    private static final @Nullable Class<?> COMPONENT = StructuralSharing.component();
+
+    private final AtomicReference<@Nullable Committed> committed = new AtomicReference<>();
+    private final boolean commitOnLoad;
+
+    // Guarded by this: generations loaded but not published yet, oldest first.
+    private final Deque<Committed> loaded = new ArrayDeque<>();
+
+    /**
+     * Creates the state of a holder's structural sharing.
+     *
+     * @param    commitOnLoad whether loaded generations are committed right away, for holders
+     *                        that cannot report {@link #published(Object)}
+     */
+    StructuralSharing(final boolean commitOnLoad) {
+        this.commitOnLoad = commitOnLoad;
+    }
+
+    /**
+     * Starts a load, returning the options the tree has to be loaded with.
+     *
+     * @param    options the options of the loader
+     * @return   the state of the new generation
+     */
+    Generation begin(final ConfigurationOptions options) {
+        return new Generation(options);
+    }
+
+    /**
+     * Commits the loaded generation that produced a published configuration,
+     * discarding the ones loaded before it.
+     *
+     * @param    config the published configuration
+     */
+    synchronized void published(final Object config) {
+        for (final Committed generation : this.loaded) {
+            if (generation.config() == config) {
+                @Nullable Committed head;
+                do {
+                    head = this.loaded.poll();
+                } while (head != generation);
+                this.committed.set(generation);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The state of a generation being loaded.
+     */
+    final class Generation implements TypeSerializer<Object> {
+
+        private final TypeSerializerCollection serializers;
+        private final ConfigurationOptions options;
+        private final Map<NodePath, Object> values = new HashMap<>();
+        private final @Nullable Committed previous;
+        private @Nullable Set<NodePath> changes;
+
+        private Generation(final ConfigurationOptions options) {
+            this.previous = StructuralSharing.this.committed.get();
+            this.serializers = options.serializers();
+            this.options = options.serializers(builder -> builder.register(StructuralSharing.shareable(), this));
+        }
+
+        /**
+         * Returns the options to load the tree with, in which this generation intercepts shareable types.
+         *
+         * @return   the options
+         */
+        ConfigurationOptions options() {
+            return this.options;
+        }
+
+        /**
+         * Diffs the loaded tree against the previous generation, right before mapping it.
+         *
+         * @param    node the loaded and post-processed tree
+         * @param    <C>  the type of the configuration class
+         * @return   the previous configuration if the tree is unchanged, otherwise {@code null}
+         */
+        @SuppressWarnings("unchecked")
+        <C> @Nullable C prepare(final ConfigurationNode node) {
+            if (this.previous == null) {
+                return null;
+            }
+            this.changes = ConfigurationNodes.changedPaths(this.previous.node(), node);
+            if (this.changes.isEmpty()) {
+                this.values.putAll(this.previous.values());
+                return (C) this.previous.config();
+            }
+            return null;
+        }
+
+        /**
+         * Records the loaded generation, to be compared against by later loads
+         * once it is published. The first generation and unchanged ones are
+         * committed right away.
+         *
+         * @param    node   the tree the configuration was mapped from
+         * @param    config the mapped configuration
+         */
+        void commit(final ConfigurationNode node, final Object config) {
+            if (this.previous != null && this.previous.config() == config) {
+                // Nothing changed, so the committed generation stays valid and is published again.
+                return;
+            }
+            final Committed generation = new Committed(node, config, Map.copyOf(this.values));
+            if (StructuralSharing.this.commitOnLoad || this.previous == null) {
+                StructuralSharing.this.committed.compareAndSet(this.previous, generation);
+                return;
+            }
+            synchronized (StructuralSharing.this) {
+                StructuralSharing.this.loaded.add(generation);
+            }
+        }
+
+        @Override
+        public Object deserialize(final Type type, final ConfigurationNode node) throws SerializationException {
+            final NodePath path = node.path();
+            if (this.previous != null && this.changes != null && !this.affected(path)) {
+                final @Nullable Object previous = this.previous.values().get(path);
+                if (previous != null && GenericTypeReflector.erase(type).isInstance(previous)) {
+                    this.values.put(path, previous);
+                    return previous;
+                }
+            }
+
+            final @Nullable Object value = this.delegate(type).deserialize(type, node);
+            if (value == null) {
+                throw new SerializationException(node, type, "Serializer returned null");
+            }
+            this.values.put(path, value);
+            return value;
+        }
+
+        @Override
+        public void serialize(final Type type, final @Nullable Object object, final ConfigurationNode node) throws SerializationException {
+            this.delegate(type).serialize(type, object, node);
+        }
+
+        @Override
+        public @Nullable Object emptyValue(final Type type, final ConfigurationOptions options) {
+            final @Nullable TypeSerializer<?> serializer = this.serializers.get(type);
+            return serializer != null ? serializer.emptyValue(type, options) : null;
+        }
+
+        private boolean affected(final NodePath path) {
+            for (final NodePath changed : this.changes) {
+                if (ConfigurationNodes.overlaps(path, changed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private TypeSerializer<Object> delegate(final Type type) throws SerializationException {
+            final @Nullable TypeSerializer<?> serializer = this.serializers.get(type);
+            if (serializer == null) {
+                throw new SerializationException(type, "No serializer available for type " + type);
+            }
+            return (TypeSerializer<Object>) serializer;
+        }
+    }
+
+    private static Predicate<Type> shareable() {
+        return type -> {
+            final Class<?> erased = GenericTypeReflector.erase(type);
+            return erased.isRecord()
+                    || erased.isAnnotationPresent(ConfigSerializable.class)
+                    || COMPONENT != null && COMPONENT.isAssignableFrom(erased);
+        };
+    }
+
+    // Adventure is an optional dependency; components are only shared when it is present.
+    private static @Nullable Class<?> component() {
+        try {
+            return Class.forName("net.kyori.adventure.text.Component", false, StructuralSharing.class.getClassLoader());
+        } catch (final ClassNotFoundException | LinkageError exception) {
+            return null;
+        }
+    }
+
+    // The last committed generation: its tree, the configuration mapped from it and the shareable values by path.
+    private record Committed(ConfigurationNode node, Object config, Map<NodePath, Object> values) {
+    }
+}
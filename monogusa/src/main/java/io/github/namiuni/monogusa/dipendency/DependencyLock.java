@@ -0,0 +1,265 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.dipendency;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The lockfile written by the {@code writeDependencyLock} build task, and the
+ * index remembering where the locked jars were found in the cache.
+ *
+ * <p>The lockfile lists one {@code dependency <coordinates> <file name> <sha256>}
+ * line per jar. After a full resolution the index records the path, size and
+ * modification time of every locked jar whose checksum matched, so that later
+ * startups only have to stat the files.</p>
+ */
+@NullMarked
+final class DependencyLock {
+
+    private final List<String> repositories;
+    private final List<Entry> entries;
+
+    private DependencyLock(final List<String> repositories, final List<Entry> entries) {
+        this.repositories = repositories;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a lockfile from the classpath.
+     *
+     * @param loader   the class loader to read the resource from
+     * @param resource the name of the resource
+     * @return the lockfile, or {@code null} if the resource does not exist
+     * @throws IOException if the resource cannot be read or is malformed
+     */
+    static @Nullable DependencyLock read(final ClassLoader loader, final String resource) throws IOException {
+        try (InputStream stream = loader.getResourceAsStream(resource)) {
+            if (stream == null) {
+                return null;
+            }
+
+            final List<String> repositories = new ArrayList<>();
+            final List<Entry> entries = new ArrayList<>();
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.strip().split(" ");
+                if (parts[0].equals("repository") && parts.length == 2) {
+                    repositories.add(parts[1]);
+                } else if (parts[0].equals("dependency")) {
+                    if (parts.length != 4 || parts[1].split(":").length < 3) {
+                        throw new IOException("Malformed lockfile line: " + line);
+                    }
+                    entries.add(new Entry(parts[1], parts[2], parts[3]));
+                }
+            }
+            return new DependencyLock(List.copyOf(repositories), List.copyOf(entries));
+        }
+    }
+
+    /**
+     * Returns the repositories the dependencies were resolved from at build time.
+     *
+     * @return the repository URLs, in declaration order
+     */
+    List<String> repositories() {
+        return this.repositories;
+    }
+
+    /**
+     * Returns the locked jars.
+     *
+     * @return the locked jars
+     */
+    List<Entry> entries() {
+        return this.entries;
+    }
+
+    /**
+     * Looks up every locked jar in the cache index without hashing or resolving anything.
+     *
+     * @param indexFile the index written by {@link #remember(Path, Set)}
+     * @return the cached jars, or {@code null} if any of them is missing or was modified
+     */
+    @Nullable Set<Path> verify(final Path indexFile) {
+        final Map<String, IndexEntry> index = DependencyLock.readIndex(indexFile);
+        final Set<Path> files = new LinkedHashSet<>();
+        for (final Entry entry : this.entries) {
+            final @Nullable IndexEntry indexed = index.get(entry.sha256());
+            if (indexed == null || !indexed.file().getFileName().toString().equals(entry.fileName()) || !indexed.matches()) {
+                return null;
+            }
+            files.add(indexed.file());
+        }
+        return files;
+    }
+
+    /**
+     * Records the resolved jars matching the lockfile in the cache index.
+     *
+     * <p>Nothing is recorded unless every locked jar was found with its expected
+     * checksum, so an incomplete resolution keeps using the slow path.</p>
+     *
+     * @param indexFile the index to write
+     * @param resolved  the jars returned by the resolver
+     * @throws IOException if a jar cannot be hashed or the index cannot be written
+     */
+    void remember(final Path indexFile, final Set<Path> resolved) throws IOException {
+        final Map<String, Path> byChecksum = new LinkedHashMap<>();
+        for (final Path file : resolved) {
+            byChecksum.put(DependencyLock.sha256(file), file);
+        }
+
+        final StringBuilder index = new StringBuilder();
+        for (final Entry entry : this.entries) {
+            final @Nullable Path file = byChecksum.get(entry.sha256());
+            if (file == null) {
+                return;
+            }
+            final IndexEntry indexed = IndexEntry.stat(file);
+            index.append(entry.sha256()).append('\t')
+                    .append(indexed.size()).append('\t')
+                    .append(indexed.modified()).append('\t')
+                    .append(file.toAbsolutePath()).append('\n');
+        }
+
+        final Path directory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temporary, index, StandardCharsets.UTF_8);
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Map<String, IndexEntry> readIndex(final Path indexFile) {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            return Map.of();
+        }
+
+        final Map<String, IndexEntry> index = new LinkedHashMap<>();
+        for (final String line : lines) {
+            final String[] parts = line.split("\t", 4);
+            if (parts.length == 4) {
+                try {
+                    index.put(parts[0], new IndexEntry(Path.of(parts[3]), Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                } catch (final RuntimeException exception) {
+                    return Map.of();
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Creates a SHA-256 digest.
+     *
+     * @return a new digest
+     * @throws IllegalStateException if the runtime does not support SHA-256
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 checksum of a file.
+     *
+     * @param file the file to hash
+     * @return the lower-case hexadecimal checksum
+     * @throws IOException if the file cannot be read
+     */
+    static String sha256(final Path file) throws IOException {
+        final MessageDigest digest = DependencyLock.newDigest();
+        try (InputStream stream = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * A locked jar.
+     *
+     * @param coordinates the {@code group:artifact:version[:classifier]} coordinates
+     * @param fileName    the file name of the jar
+     * @param sha256      the lower-case hexadecimal SHA-256 checksum of the jar
+     */
+    record Entry(String coordinates, String fileName, String sha256) {
+
+        /**
+         * Returns the path of the jar relative to the root of a Maven repository.
+         *
+         * @return the repository path, using {@code /} as separator
+         */
+        String repositoryPath() {
+            final String[] parts = this.coordinates.split(":");
+            return String.join("/", parts[0].replace('.', '/'), parts[1], parts[2], this.fileName);
+        }
+    }
+
+    private record IndexEntry(Path file, long size, long modified) {
+
+        private static IndexEntry stat(final Path file) throws IOException {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new IndexEntry(file, attributes.size(), attributes.lastModifiedTime().to(TimeUnit.MILLISECONDS));
+        }
+
+        private boolean matches() {
+            try {
+                final IndexEntry current = IndexEntry.stat(this.file);
+                return current.size() == this.size && current.modified() == this.modified;
+            } catch (final IOException exception) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.dipendency;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * Downloads the jars of a lockfile into a Maven-style layout, bounded by {@link ResolverSettings}.
+ *
+ * <p>Jars are streamed through a digest into a temporary file next to their
+ * destination and only moved into place once the checksum matches, so the
+ * cache never holds a partially written or corrupt jar. Repositories are tried
+ * in lockfile order; a missing artifact moves on to the next repository
+ * immediately, while other failures are retried with exponential backoff.
+ * Both {@code http(s):} and {@code file:} repository URLs are supported.</p>
+ */
+@NullMarked
+final class ParallelDownloader implements AutoCloseable {
+
+    private final ResolverSettings settings;
+    private final Logger logger;
+    private final HttpClient client;
+    private final Semaphore downloads;
+    private final Map<String, Semaphore> connections = new ConcurrentHashMap<>();
+
+    ParallelDownloader(final ResolverSettings settings, final Logger logger) {
+        this.settings = settings;
+        this.logger = logger;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(settings.timeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.downloads = new Semaphore(settings.maxParallelDownloads());
+    }
+
+    /**
+     * Makes every jar of the lockfile available in the cache directory.
+     *
+     * @param lock           the lockfile listing the jars and repositories
+     * @param cacheDirectory the root of the cache
+     * @return the cached jars, in lockfile order
+     * @throws IOException if any jar could not be downloaded from any repository
+     */
+    Set<Path> download(final DependencyLock lock, final Path cacheDirectory) throws IOException {
+        final List<Future<Path>> futures = new ArrayList<>(lock.entries().size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final DependencyLock.Entry entry : lock.entries()) {
+                futures.add(executor.submit(() -> this.fetch(lock.repositories(), entry, cacheDirectory)));
+            }
+        }
+
+        final Set<Path> files = new LinkedHashSet<>();
+        @Nullable IOException failure = null;
+        for (final Future<Path> future : futures) {
+            try {
+                files.add(future.resultNow());
+            } catch (final IllegalStateException exception) {
+                if (failure == null) {
+                    failure = new IOException("Failed to download dependencies");
+                }
+                failure.addSuppressed(future.exceptionNow());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return files;
+    }
+
+    @Override
+    public void close() {
+        this.client.close();
+    }
+
+    private Path fetch(final List<String> repositories, final DependencyLock.Entry entry, final Path cacheDirectory) throws IOException, InterruptedException {
+        final Path target = cacheDirectory.resolve(entry.repositoryPath());
+        if (Files.isRegularFile(target) && DependencyLock.sha256(target).equals(entry.sha256())) {
+            return target;
+        }
+
+        this.downloads.acquire();
+        try {
+            final IOException failure = new IOException("Failed to download " + entry.coordinates());
+            for (final String repository : repositories) {
+                final URI uri = URI.create((repository.endsWith("/") ? repository : repository + "/") + entry.repositoryPath());
+                final Semaphore limit = this.connections.computeIfAbsent(repository, ignored -> new Semaphore(this.settings.maxConnectionsPerRepository()));
+                for (int attempt = 0; attempt < this.settings.maxAttempts(); attempt++) {
+                    if (attempt > 0) {
+                        Thread.sleep(this.settings.initialBackoff().multipliedBy(1L << Math.min(attempt - 1, 16)));
+                    }
+                    limit.acquire();
+                    try {
+                        this.transfer(uri, entry, target);
+                        this.logger.info("Downloaded {}", entry.coordinates());
+                        return target;
+                    } catch (final MissingArtifactException exception) {
+                        failure.addSuppressed(exception);
+                        break;
+                    } catch (final InterruptedIOException exception) {
+                        throw exception;
+                    } catch (final IOException exception) {
+                        this.logger.debug("Attempt {} to download {} failed", attempt + 1, uri, exception);
+                        failure.addSuppressed(exception);
+                    } finally {
+                        limit.release();
+                    }
+                }
+            }
+            throw failure;
+        } finally {
+            this.downloads.release();
+        }
+    }
+
+    private void transfer(final URI uri, final DependencyLock.Entry entry, final Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        final Path temporary = Files.createTempFile(target.getParent(), entry.fileName(), ".part");
+        try {
+            final MessageDigest digest = DependencyLock.newDigest();
+            try (InputStream stream = new DigestInputStream(this.open(uri), digest)) {
+                Files.copy(stream, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            final String checksum = HexFormat.of().formatHex(digest.digest());
+            if (!checksum.equals(entry.sha256())) {
+                throw new IOException("Checksum mismatch for %s: expected %s, got %s".formatted(uri, entry.sha256(), checksum));
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private InputStream open(final URI uri) throws IOException {
+        if ("file".equals(uri.getScheme())) {
+            try {
+                return Files.newInputStream(Path.of(uri));
+            } catch (final NoSuchFileException exception) {
+                throw new MissingArtifactException(uri);
+            }
+        }
+
+        final HttpRequest request = HttpRequest.newBuilder(uri).timeout(this.settings.timeout()).GET().build();
+        final HttpResponse<InputStream> response;
+        try {
+            response = this.client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + uri);
+        }
+        if (response.statusCode() == 200) {
+            return response.body();
+        }
+        response.body().close();
+        if (response.statusCode() == 404) {
+            throw new MissingArtifactException(uri);
+        }
+        throw new IOException("Unexpected status %d for %s".formatted(response.statusCode(), uri));
+    }
+
+    private static final class MissingArtifactException extends IOException {
+
+        private static final long serialVersionUID = -2920183726358109371L;
+
+        MissingArtifactException(final URI uri) {
+            super("Not found: " + uri);
+        }
+    }
+}
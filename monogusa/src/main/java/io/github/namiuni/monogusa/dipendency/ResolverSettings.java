@@ -0,0 +1,77 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.dipendency;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Settings for downloading the dependencies of a lockfile on a cold cache.
+ *
+ * @param maxParallelDownloads        the maximum number of jars downloaded at once
+ * @param maxConnectionsPerRepository the maximum number of concurrent downloads from a single repository
+ * @param maxAttempts                 the number of attempts per repository before moving on to the next one
+ * @param initialBackoff              the delay before the first retry, doubled after every further failure
+ * @param timeout                     the timeout for connecting to a repository and for receiving the
+ *                                    response headers of a single request; reading the body is not bounded
+ */
+@NullMarked
+public record ResolverSettings(
+        int maxParallelDownloads,
+        int maxConnectionsPerRepository,
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration timeout
+) {
+
+    /**
+     * Validates the settings.
+     *
+     * @param maxParallelDownloads        the maximum number of jars downloaded at once
+     * @param maxConnectionsPerRepository the maximum number of concurrent downloads from a single repository
+     * @param maxAttempts                 the number of attempts per repository before moving on to the next one
+     * @param initialBackoff              the delay before the first retry, doubled after every further failure
+     * @param timeout                     the timeout for connecting to a repository and for receiving the
+     *                                    response headers of a single request; reading the body is not bounded
+     * @throws IllegalArgumentException if a limit is not positive or a duration is negative
+     */
+    public ResolverSettings {
+        if (maxParallelDownloads < 1 || maxConnectionsPerRepository < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        Objects.requireNonNull(initialBackoff, "initialBackoff");
+        Objects.requireNonNull(timeout, "timeout");
+        if (initialBackoff.isNegative() || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Durations must not be negative");
+        }
+    }
+
+    /**
+     * Returns settings suitable for public repositories: eight parallel downloads,
+     * four per repository, three attempts starting with a 500 ms backoff, and a
+     * 30 second timeout.
+     *
+     * @return the default settings
+     */
+    public static ResolverSettings defaults() {
+        return new ResolverSettings(8, 4, 3, Duration.ofMillis(500), Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.dipendency;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The bookkeeping that lets several plugins and processes share one cache directory.
+ *
+ * <p>Every owner keeps the list of jars it uses in {@code .monogusa/owners/<owner>.refs},
+ * and {@code .monogusa/manifest} lists every jar resolved through the cache.
+ * Cleanup deletes only manifest entries no owner references any longer, so it
+ * never walks the cache directory. Writers serialize on an exclusive lock of
+ * {@code .monogusa/lock}; within one JVM, where another plugin may hold that
+ * lock through its own class loader, acquisition is retried until it is released.</p>
+ */
+@NullMarked
+final class SharedCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedCache.class.getSimpleName());
+    private static final Pattern OWNER = Pattern.compile("[A-Za-z0-9._-]+");
+    private static final String REFERENCES = ".refs";
+    private static final Duration EXPIRY = Duration.ofDays(30);
+    private static final long RETRY_MILLIS = 50L;
+
+    private final Path directory;
+    private final Path owners;
+    private final Path references;
+    private final Path index;
+
+    /**
+     * Creates the bookkeeping of an owner of the cache.
+     *
+     * @param cacheDirectory the shared cache directory
+     * @param owner          the name of the owner, such as the plugin name
+     * @throws IllegalArgumentException if the owner is not a valid file name
+     */
+    SharedCache(final Path cacheDirectory, final String owner) {
+        if (!OWNER.matcher(owner).matches()) {
+            throw new IllegalArgumentException("Invalid cache owner: " + owner);
+        }
+        this.directory = cacheDirectory.resolve(".monogusa");
+        this.owners = this.directory.resolve("owners");
+        this.references = this.owners.resolve(owner + REFERENCES);
+        this.index = this.owners.resolve(owner + ".index");
+    }
+
+    /**
+     * Returns the file holding the owner's lockfile index.
+     *
+     * @return the index file
+     */
+    Path index() {
+        return this.index;
+    }
+
+    /**
+     * Acquires the exclusive lock of the cache, waiting for other plugins and processes.
+     *
+     * @return the held lock, to be closed once the cache is consistent again
+     * @throws IOException if the lock file cannot be opened or locked
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    Lock lock() throws IOException {
+        Files.createDirectories(this.owners);
+        final FileChannel channel = FileChannel.open(this.directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            while (true) {
+                try {
+                    final FileLock lock = channel.lock();
+                    return () -> {
+                        lock.release();
+                        channel.close();
+                    };
+                } catch (final OverlappingFileLockException exception) {
+                    Thread.sleep(RETRY_MILLIS);
+                }
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            channel.close();
+            throw new InterruptedIOException("Interrupted while waiting for the dependency cache lock");
+        } catch (final IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Replaces the owner's references and adds the jars to the manifest.
+     *
+     * <p>If the references are unchanged they are only touched, marking the
+     * owner as alive so that they do not expire. Must be called while holding
+     * {@link #lock()}.</p>
+     *
+     * @param files the jars the owner uses
+     * @throws IOException if the bookkeeping cannot be written
+     */
+    void retain(final Collection<Path> files) throws IOException {
+        final List<String> lines = files.stream().map(file -> file.toAbsolutePath().normalize().toString()).toList();
+        if (SharedCache.read(this.references).equals(lines)) {
+            Files.setLastModifiedTime(this.references, FileTime.from(Instant.now()));
+        } else {
+            SharedCache.write(this.references, lines);
+        }
+
+        final Path manifest = this.directory.resolve("manifest");
+        final Set<String> known = new LinkedHashSet<>(SharedCache.read(manifest));
+        if (known.addAll(lines)) {
+            SharedCache.write(manifest, known);
+        }
+    }
+
+    /**
+     * Deletes the jars listed in the manifest that no owner references.
+     *
+     * <p>Owners whose references were not touched for thirty days are treated
+     * as uninstalled. Must be called while holding {@link #lock()}.</p>
+     *
+     * @throws IOException if the bookkeeping cannot be read or written
+     */
+    void sweep() throws IOException {
+        final Set<String> referenced = new HashSet<>();
+        final Instant expiry = Instant.now().minus(EXPIRY);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.owners, "*" + REFERENCES)) {
+            for (final Path owner : stream) {
+                if (Files.getLastModifiedTime(owner).toInstant().isBefore(expiry)) {
+                    LOGGER.info("Releasing dependencies of inactive owner {}", owner.getFileName());
+                    Files.deleteIfExists(owner);
+                } else {
+                    referenced.addAll(SharedCache.read(owner));
+                }
+            }
+        }
+
+        final Path manifest = this.directory.resolve("manifest");
+        final List<String> known = SharedCache.read(manifest);
+        final List<String> kept = new ArrayList<>(known.size());
+        for (final String file : known) {
+            if (referenced.contains(file)) {
+                kept.add(file);
+            } else {
+                Files.deleteIfExists(Path.of(file));
+                LOGGER.debug("Deleted unused dependency {}", file);
+            }
+        }
+        if (kept.size() != known.size()) {
+            SharedCache.write(manifest, kept);
+        }
+    }
+
+    private static List<String> read(final Path file) throws IOException {
+        return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : List.of();
+    }
+
+    private static void write(final Path file, final Collection<String> lines) throws IOException {
+        final Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * The exclusive lock of the cache, released on close.
+     */
+    @FunctionalInterface
+    interface Lock extends AutoCloseable {
+
+        @Override
+        void close() throws IOException;
+    }
+}
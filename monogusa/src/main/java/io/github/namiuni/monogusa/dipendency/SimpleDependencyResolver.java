@@ -1,8 +1,14 @@
 package io.github.namiuni.monogusa.dipendency;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.jpenilla.gremlin.runtime.DependencyCache;
@@ -12,10 +18,20 @@ import xyz.jpenilla.gremlin.runtime.DependencySet;
 /**
  * A utility class for resolving and caching project dependencies using Gremlin.
  * It simplifies downloading JAR files based on a dependency list.
+ *
+ * <p>If the {@code writeDependencyLock} build task packaged a lockfile next to
+ * the dependency list, jars already verified against it are returned straight
+ * from the cache without building a resolver or touching the network.</p>
+ *
+ * <p>Cache directories can be shared by several plugins and processes, see
+ * {@link #resolve(Path, String, String)}.</p>
  */
 @NullMarked
 public final class SimpleDependencyResolver {
 
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Pattern INVALID_OWNER = Pattern.compile("[^A-Za-z0-9._-]");
+
     private SimpleDependencyResolver() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
@@ -23,30 +39,142 @@ public final class SimpleDependencyResolver {
     /**
      * Resolves dependencies from "dependencies.txt" and caches them in the specified directory.
      *
+     * <p>The cache owner is named after the jar the caller was loaded from, see
+     * {@link #resolve(Path, String)}.</p>
+     *
      * @param cacheDirectory the directory to cache resolved JAR files
      * @return a set of paths to the resolved JAR files
      */
     public static Set<Path> resolve(final Path cacheDirectory) {
-        return SimpleDependencyResolver.resolve(cacheDirectory, "dependencies.txt");
+        final String owner = SimpleDependencyResolver.owner(STACK_WALKER.getCallerClass());
+        return SimpleDependencyResolver.resolveInto(cacheDirectory, "dependencies.txt", owner, null);
     }
 
     /**
      * Resolves dependencies from a specified resource file and caches them in the specified directory.
      *
+     * <p>The lockfile is looked up under the same name with a {@code .lock} extension.</p>
+     *
+     * <p>The cache owner is named after the file name of the jar the caller was
+     * loaded from, so that plugins sharing a cache directory do not release
+     * each other's jars. Renaming the jar, for example when its version is part
+     * of the name, makes it a new owner; the references of the old one expire
+     * after thirty days. Use {@link #resolve(Path, String, String)} to choose a
+     * stable name.</p>
+     *
      * @param cacheDirectory the directory to cache resolved JAR files
      * @param fileName the name of the classpath resource file containing the dependency list
      * @return a set of paths to the resolved JAR files
      */
     public static Set<Path> resolve(final Path cacheDirectory, final String fileName) {
-        final DependencySet dependencies = DependencySet.readFromClasspathResource(SimpleDependencyResolver.class.getClassLoader(), fileName);
-        final DependencyCache cache = new DependencyCache(cacheDirectory);
+        final String owner = SimpleDependencyResolver.owner(STACK_WALKER.getCallerClass());
+        return SimpleDependencyResolver.resolveInto(cacheDirectory, fileName, owner, null);
+    }
+
+    /**
+     * Resolves dependencies from a specified resource file into a cache directory
+     * that may be shared with other plugins and processes.
+     *
+     * <p>Each owner records the jars it uses, and cleanup only deletes jars that
+     * no owner of the cache references any more. Plugins sharing a directory must
+     * therefore pass distinct owner names, typically their plugin names.</p>
+     *
+     * @param cacheDirectory the directory to cache resolved JAR files
+     * @param fileName the name of the classpath resource file containing the dependency list
+     * @param owner the name identifying the caller among the users of the cache
+     * @return a set of paths to the resolved JAR files
+     * @throws IllegalArgumentException if the owner contains characters other than letters, digits, {@code .}, {@code _} and {@code -}
+     * @throws UncheckedIOException if the cache cannot be locked
+     */
+    public static Set<Path> resolve(final Path cacheDirectory, final String fileName, final String owner) {
+        return SimpleDependencyResolver.resolveInto(cacheDirectory, fileName, owner, null);
+    }
+
+    /**
+     * Resolves dependencies like {@link #resolve(Path, String, String)}, downloading
+     * missing jars with bounded parallelism.
+     *
+     * <p>The jars and repositories listed in the lockfile are downloaded directly,
+     * with each jar's checksum verified while it streams to disk. Without a
+     * lockfile, resolution falls back to Gremlin and the settings are ignored.</p>
+     *
+     * @param cacheDirectory the directory to cache resolved JAR files
+     * @param fileName the name of the classpath resource file containing the dependency list
+     * @param owner the name identifying the caller among the users of the cache
+     * @param settings the download limits, retries and timeouts
+     * @return a set of paths to the resolved JAR files
+     * @throws IllegalArgumentException if the owner contains characters other than letters, digits, {@code .}, {@code _} and {@code -}
+     * @throws UncheckedIOException if the cache cannot be locked or a jar cannot be downloaded
+     */
+    public static Set<Path> resolve(final Path cacheDirectory, final String fileName, final String owner, final ResolverSettings settings) {
+        Objects.requireNonNull(settings, "settings");
+        return SimpleDependencyResolver.resolveInto(cacheDirectory, fileName, owner, settings);
+    }
+
+    @SuppressWarnings("try")
+    private static Set<Path> resolveInto(final Path cacheDirectory, final String fileName, final String owner, final @Nullable ResolverSettings settings) {
+        final int extension = fileName.lastIndexOf('.');
+        final String lockFileName = (extension < 0 ? fileName : fileName.substring(0, extension)) + ".lock";
+        final ClassLoader classLoader = SimpleDependencyResolver.class.getClassLoader();
         final Logger logger = LoggerFactory.getLogger(SimpleDependencyResolver.class.getSimpleName());
-        final Set<Path> files;
-        try (DependencyResolver downloader = new DependencyResolver(logger)) {
-            files = downloader.resolve(dependencies, cache).jarFiles();
+        final SharedCache shared = new SharedCache(cacheDirectory, owner);
+
+        @Nullable DependencyLock lock;
+        try {
+            lock = DependencyLock.read(classLoader, lockFileName);
+        } catch (final IOException exception) {
+            logger.warn("Ignoring unreadable dependency lockfile {}", lockFileName, exception);
+            lock = null;
         }
+        try (SharedCache.Lock ignored = shared.lock()) {
+            // Verified under the lock so that no other owner sweeps the jars in between; the references are
+            // rewritten if they went missing, for example after expiring.
+            final @Nullable Set<Path> locked = lock != null ? lock.verify(shared.index()) : null;
+            if (locked != null) {
+                shared.retain(locked);
+                return locked;
+            }
 
-        cache.cleanup();
-        return files;
+            final Set<Path> files;
+            if (settings != null && lock != null) {
+                try (ParallelDownloader downloader = new ParallelDownloader(settings, logger)) {
+                    files = downloader.download(lock, cacheDirectory);
+                }
+            } else {
+                final DependencySet dependencies = DependencySet.readFromClasspathResource(classLoader, fileName);
+                try (DependencyResolver downloader = new DependencyResolver(logger)) {
+                    files = downloader.resolve(dependencies, new DependencyCache(cacheDirectory)).jarFiles();
+                }
+            }
+
+            try {
+                shared.retain(files);
+                shared.sweep();
+            } catch (final IOException exception) {
+                logger.warn("Failed to clean up the dependency cache {}", cacheDirectory, exception);
+            }
+            if (lock != null) {
+                try {
+                    lock.remember(shared.index(), files);
+                } catch (final IOException exception) {
+                    logger.warn("Failed to index resolved dependencies in {}", cacheDirectory, exception);
+                }
+            }
+            return files;
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Failed to resolve dependencies into " + cacheDirectory, exception);
+        }
+    }
+
+    // Falls back to a shared name if the caller was not loaded from a file, such as when running from an IDE.
+    private static String owner(final Class<?> caller) {
+        final @Nullable CodeSource source = caller.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return "default";
+        }
+        final String path = source.getLocation().getPath();
+        final String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        final String name = trimmed.substring(trimmed.lastIndexOf('/') + 1).replaceFirst("\\.jar$", "");
+        return name.isEmpty() ? "default" : INVALID_OWNER.matcher(name).replaceAll("_");
     }
 }
@@ -0,0 +1,353 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.message;
+
+import io.github.namiuni.monogusa.common.ReloadListener;
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import io.github.namiuni.monogusa.common.Subscription;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.ParsingException;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Localized MiniMessage templates, compiled once per reload of the holder they are read from.
+ *
+ * <p>When the source holder publishes a new value, the catalog is rebuilt on
+ * a virtual thread and swapped in once complete, so threads rendering
+ * messages never parse templates themselves; until then they keep rendering
+ * the previous templates. Templates using only the tags known to the
+ * {@link MiniMessage} instance are rendered while compiling, so sending them
+ * costs a map lookup.
+ * Templates with placeholders are rendered on demand; results for arguments
+ * given as components are cached until the next reload, keeping the most
+ * recently used ones up to a fixed number of entries, while renders with
+ * arbitrary {@link TagResolver}s are never cached.</p>
+ *
+ * <p>Messages are looked up in the requested locale, then in its language
+ * alone, then in the fallback locale. A key missing everywhere renders as its
+ * own text.</p>
+ */
+@NullMarked
+public final class MessageCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageCatalog.class.getSimpleName());
+    private static final int MAX_CACHED_RENDERS = 4096;
+
+    private final Function<Object, Compiled> compiler;
+    private volatile Compiled compiled;
+
+    // Guarded by this: the sequence number of the last reload started and of the compiled catalog swapped in.
+    private long started;
+    private long swapped;
+
+    private MessageCatalog(final Function<Object, Compiled> compiler, final Object value) {
+        this.compiler = compiler;
+        this.compiled = compiler.apply(value);
+    }
+
+    /**
+     * Creates a catalog reading its templates from a holder, using the default
+     * {@link MiniMessage} instance.
+     *
+     * @param    holder   the holder providing the templates, such as a configuration
+     * @param    bundles  extracts the templates of each locale, keyed by message key
+     * @param    fallback the locale used for messages missing in the requested one
+     * @param    <C>      the type of the held value
+     * @return   a new catalog, compiled from the current value of the holder
+     */
+    public static <C> MessageCatalog of(
+            final ReloadableHolder<C> holder,
+            final Function<? super C, ? extends Map<Locale, ? extends Map<String, String>>> bundles,
+            final Locale fallback
+    ) {
+        return MessageCatalog.of(holder, bundles, fallback, MiniMessage.miniMessage());
+    }
+
+    /**
+     * Creates a catalog reading its templates from a holder.
+     *
+     * @param    holder      the holder providing the templates, such as a configuration
+     * @param    bundles     extracts the templates of each locale, keyed by message key
+     * @param    fallback    the locale used for messages missing in the requested one
+     * @param    miniMessage the instance parsing the templates
+     * @param    <C>         the type of the held value
+     * @return   a new catalog, compiled from the current value of the holder
+     */
+    public static <C> MessageCatalog of(
+            final ReloadableHolder<C> holder,
+            final Function<? super C, ? extends Map<Locale, ? extends Map<String, String>>> bundles,
+            final Locale fallback,
+            final MiniMessage miniMessage
+    ) {
+        Objects.requireNonNull(bundles, "bundles");
+        Objects.requireNonNull(fallback, "fallback");
+        Objects.requireNonNull(miniMessage, "miniMessage");
+        @SuppressWarnings("unchecked")
+        final Function<Object, Compiled> compiler = value -> Compiled.compile(bundles.apply((C) value), fallback, miniMessage);
+        final MessageCatalog catalog = new MessageCatalog(compiler, holder.get());
+        final Recompilation recompilation = new Recompilation(new WeakReference<>(catalog));
+        recompilation.subscription = holder.subscribe(recompilation);
+        return catalog;
+    }
+
+    /**
+     * Renders a message without arguments.
+     *
+     * @param    key    the message key
+     * @param    locale the locale of the recipient
+     * @return   the rendered message
+     */
+    public Component render(final String key, final Locale locale) {
+        return this.render(key, locale, Map.of());
+    }
+
+    /**
+     * Renders a message, replacing each {@code <name>} tag with the argument of that name.
+     *
+     * <p>The result is cached until the next reload, unless evicted by more
+     * recently used renders, so arguments should be values that repeat, such
+     * as a world or rank name, rather than per-call data like timestamps.</p>
+     *
+     * @param    key       the message key
+     * @param    locale    the locale of the recipient
+     * @param    arguments the arguments, keyed by tag name
+     * @return   the rendered message
+     */
+    public Component render(final String key, final Locale locale, final Map<String, ? extends ComponentLike> arguments) {
+        final Compiled catalog = this.compiled;
+        final @Nullable Template template = catalog.template(key, locale);
+        if (template == null) {
+            return Component.text(key);
+        }
+        if (template.component() != null) {
+            return template.component();
+        }
+
+        final Map<String, Component> components = new HashMap<>(arguments.size());
+        arguments.forEach((name, argument) -> components.put(name, argument.asComponent()));
+        final RenderKey renderKey = new RenderKey(template, Map.copyOf(components));
+        final @Nullable Component cached = catalog.renders().get(renderKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        final TagResolver.Builder resolver = TagResolver.builder();
+        components.forEach((name, component) -> resolver.resolver(Placeholder.component(name, component)));
+        final Component rendered = catalog.miniMessage().deserialize(template.source(), resolver.build());
+        catalog.renders().put(renderKey, rendered);
+        return rendered;
+    }
+
+    /**
+     * Renders a message with arbitrary tag resolvers, bypassing the render cache.
+     *
+     * @param    key      the message key
+     * @param    locale   the locale of the recipient
+     * @param    resolver the resolvers supplying the placeholders
+     * @return   the rendered message
+     */
+    public Component render(final String key, final Locale locale, final TagResolver resolver) {
+        final Compiled catalog = this.compiled;
+        final @Nullable Template template = catalog.template(key, locale);
+        if (template == null) {
+            return Component.text(key);
+        }
+        if (template.component() != null) {
+            return template.component();
+        }
+        return catalog.miniMessage().deserialize(template.source(), resolver);
+    }
+
+    /**
+     * Returns whether a message exists in the given locale or its fallbacks.
+     *
+     * @param    key    the message key
+     * @param    locale the locale of the recipient
+     * @return   {@code true} if a template is found
+     */
+    public boolean contains(final String key, final Locale locale) {
+        return this.compiled.template(key, locale) != null;
+    }
+
+    private void recompile(final Object value) {
+        final long sequence;
+        synchronized (this) {
+            sequence = ++this.started;
+        }
+        Thread.ofVirtual().name("monogusa-messages").start(() -> {
+            final Compiled next;
+            try {
+                next = this.compiler.apply(value);
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Failed to compile messages, keeping the previous ones", exception);
+                return;
+            }
+            synchronized (this) {
+                // Compilations of quick successive reloads may finish out of order.
+                if (sequence > this.swapped) {
+                    this.swapped = sequence;
+                    this.compiled = next;
+                }
+            }
+        });
+    }
+
+    // Recompiles the catalog on every reload without keeping it reachable; unsubscribes once it was collected.
+    private static final class Recompilation implements ReloadListener<Object> {
+
+        private final WeakReference<MessageCatalog> catalog;
+        private volatile @Nullable Subscription subscription;
+
+        Recompilation(final WeakReference<MessageCatalog> catalog) {
+            this.catalog = catalog;
+        }
+
+        @Override
+        public void onReload(final Object previous, final Object current) {
+            final @Nullable MessageCatalog target = this.catalog.get();
+            if (target != null) {
+                target.recompile(current);
+            } else if (this.subscription != null) {
+                this.subscription.unsubscribe();
+            }
+        }
+    }
+
+    private record Template(String source, @Nullable Component component) {
+    }
+
+    private record RenderKey(Template template, Map<String, Component> arguments) {
+    }
+
+    // The renders of one generation, evicting the least recently used; the lock is cheap next to a parse.
+    private static final class Renders {
+
+        private final Map<RenderKey, Component> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+        synchronized @Nullable Component get(final RenderKey key) {
+            return this.entries.get(key);
+        }
+
+        synchronized void put(final RenderKey key, final Component rendered) {
+            this.entries.putIfAbsent(key, rendered);
+            if (this.entries.size() > MAX_CACHED_RENDERS) {
+                final Iterator<Component> eldest = this.entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private record Compiled(
+            Map<Locale, Map<String, Template>> bundles,
+            Locale fallback,
+            MiniMessage miniMessage,
+            ConcurrentMap<Locale, List<Map<String, Template>>> chains,
+            Renders renders
+    ) {
+
+        private static Compiled compile(final Map<Locale, ? extends Map<String, String>> sources, final Locale fallback, final MiniMessage miniMessage) {
+            final Map<Locale, Map<String, Template>> bundles = new HashMap<>(sources.size());
+            sources.forEach((locale, messages) -> {
+                final Map<String, Template> templates = new HashMap<>(messages.size());
+                messages.forEach((key, source) -> templates.put(key, Compiled.template(source, miniMessage)));
+                bundles.put(locale, Map.copyOf(templates));
+            });
+            return new Compiled(Map.copyOf(bundles), fallback, miniMessage, new ConcurrentHashMap<>(), new Renders());
+        }
+
+        private static Template template(final String source, final MiniMessage miniMessage) {
+            final UnknownTags unknown = new UnknownTags();
+            final Component component;
+            try {
+                component = miniMessage.deserialize(source, unknown);
+            } catch (final ParsingException exception) {
+                return new Template(source, null);
+            }
+            // Pre-render only when every tag is known; unknown ones are placeholders filled in per call.
+            return new Template(source, unknown.names.isEmpty() ? component : null);
+        }
+
+        private @Nullable Template template(final String key, final Locale locale) {
+            for (final Map<String, Template> bundle : this.chains.computeIfAbsent(locale, this::chain)) {
+                final @Nullable Template template = bundle.get(key);
+                if (template != null) {
+                    return template;
+                }
+            }
+            return null;
+        }
+
+        private List<Map<String, Template>> chain(final Locale locale) {
+            final Set<Locale> candidates = new HashSet<>();
+            final List<Map<String, Template>> chain = new ArrayList<>(4);
+            for (final Locale candidate : List.of(locale, Locale.of(locale.getLanguage()), this.fallback, Locale.of(this.fallback.getLanguage()))) {
+                final @Nullable Map<String, Template> bundle = this.bundles.get(candidate);
+                if (bundle != null && candidates.add(candidate)) {
+                    chain.add(bundle);
+                }
+            }
+            return List.copyOf(chain);
+        }
+    }
+
+    /**
+     * Records the tags not known to the MiniMessage instance without resolving them.
+     */
+    private static final class UnknownTags implements TagResolver {
+
+        private final Set<String> names = new HashSet<>();
+
+        @Override
+        public @Nullable Tag resolve(final String name, final ArgumentQueue arguments, final Context ctx) {
+            return null;
+        }
+
+        @Override
+        public boolean has(final String name) {
+            this.names.add(name);
+            return false;
+        }
+    }
+}
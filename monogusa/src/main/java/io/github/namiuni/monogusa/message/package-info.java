@@ -0,0 +1,7 @@
+/**
+ * MiniMessage helper.
+ */
+@NullMarked
+package io.github.namiuni.monogusa.message;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,97 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Announces that a node has loaded new content for a configuration.
+ *
+ * <p>The generation is a logical clock shared by every node propagating the
+ * same configuration, so that notices delivered out of order can be told
+ * apart. The content hash identifies what was loaded; a peer that already
+ * holds the same content does not need to reload.</p>
+ *
+ * @param configId    the identifier of the configuration, shared by every node
+ * @param generation  the logical time at which the content was loaded
+ * @param contentHash the hash of the loaded content
+ */
+@NullMarked
+public record ChangeNotice(String configId, long generation, String contentHash) {
+
+    private static final int VERSION = 1;
+
+    /**
+     * Creates a notice.
+     *
+     * @param configId    the identifier of the configuration, shared by every node
+     * @param generation  the logical time at which the content was loaded
+     * @param contentHash the hash of the loaded content
+     */
+    public ChangeNotice {
+        Objects.requireNonNull(configId, "configId");
+        Objects.requireNonNull(contentHash, "contentHash");
+    }
+
+    /**
+     * Decodes a notice written by {@link #encode()}.
+     *
+     * @param    bytes the encoded notice
+     * @return   the decoded notice
+     * @throws   IllegalArgumentException if the bytes are not a notice of a supported version
+     */
+    public static ChangeNotice decode(final byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final int version = input.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported change notice version: " + version);
+            }
+            return new ChangeNotice(input.readUTF(), input.readLong(), input.readUTF());
+        } catch (final IOException exception) {
+            throw new IllegalArgumentException("Malformed change notice", exception);
+        }
+    }
+
+    /**
+     * Encodes this notice into a compact binary form, small enough for a
+     * single socket frame or plugin message.
+     *
+     * @return   the encoded notice
+     */
+    public byte[] encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + this.configId.length() + this.contentHash.length());
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeUTF(this.configId);
+            output.writeLong(this.generation);
+            output.writeUTF(this.contentHash);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import io.github.namiuni.monogusa.common.Subscription;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory transport delivering notices synchronously to every receiver.
+ */
+@NullMarked
+final class LoopbackTransport implements ReloadTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoopbackTransport.class.getSimpleName());
+
+    private final List<Consumer<? super ChangeNotice>> receivers = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    @Override
+    public void publish(final ChangeNotice notice) {
+        if (this.closed) {
+            return;
+        }
+        for (final Consumer<? super ChangeNotice> receiver : this.receivers) {
+            try {
+                receiver.accept(notice);
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Failed to handle change notice {}", notice, exception);
+            }
+        }
+    }
+
+    @Override
+    public Subscription subscribe(final Consumer<? super ChangeNotice> receiver) {
+        // Wrap so that the same receiver registered twice is removed one registration at a time.
+        final Consumer<? super ChangeNotice> registration = receiver::accept;
+        this.receivers.add(registration);
+        return () -> this.receivers.remove(registration);
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.receivers.clear();
+    }
+}
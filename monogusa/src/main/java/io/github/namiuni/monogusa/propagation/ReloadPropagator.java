@@ -0,0 +1,228 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import io.github.namiuni.monogusa.common.ReloadableHolder;
+import io.github.namiuni.monogusa.common.Subscription;
+import io.github.namiuni.monogusa.configuration.ReloadableConfiguration;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Function;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a holder in step with the same configuration on other nodes.
+ *
+ * <p>Whenever the holder publishes content whose hash differs from what it
+ * held before, a {@link ChangeNotice} is sent through the transport. When a
+ * notice for the same configuration arrives, the holder is reloaded in the
+ * background unless it already holds content with that hash, so echoes and
+ * duplicate deliveries cost nothing. Reloads caused by a notice are not
+ * announced again. Until the holder has reloaded once after being attached,
+ * its content is unknown and any accepted notice triggers a reload.</p>
+ *
+ * <p>Generations follow a logical clock: each announcement is numbered after
+ * the highest generation seen so far, and notices older than that are ignored.</p>
+ */
+@NullMarked
+public final class ReloadPropagator implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadPropagator.class.getSimpleName());
+    private static final String EMPTY_HASH = "";
+
+    private final String configId;
+    private final ReloadableHolder<?> holder;
+    private final ReloadTransport transport;
+    private final Function<Object, @Nullable String> contentHash;
+    private final Subscription reloads;
+    private final Subscription notices;
+    private @Nullable String loadedHash;
+    private @Nullable String expectedHash;
+    private long generation;
+
+    @SuppressWarnings("unchecked")
+    private <T> ReloadPropagator(
+            final String configId,
+            final ReloadableHolder<T> holder,
+            final ReloadTransport transport,
+            final Function<? super T, @Nullable String> contentHash
+    ) {
+        this.configId = configId;
+        this.holder = holder;
+        this.transport = transport;
+        this.contentHash = (Function<Object, @Nullable String>) contentHash;
+        this.reloads = holder.subscribe((previous, current) -> this.loaded(current));
+        this.notices = transport.subscribe(this::received);
+    }
+
+    /**
+     * Starts propagating the reloads of a holder, identifying its content by
+     * a hash computed from the loaded value.
+     *
+     * @param    configId    the identifier of the configuration, the same on every node
+     * @param    holder      the holder to keep in step
+     * @param    transport   the transport connecting the nodes
+     * @param    contentHash computes the hash of a loaded value; equal content must give equal hashes on every node
+     * @param    <T>         the type of the held value
+     * @return   the propagator, which stops propagating once closed
+     */
+    public static <T> ReloadPropagator attach(
+            final String configId,
+            final ReloadableHolder<T> holder,
+            final ReloadTransport transport,
+            final Function<? super T, String> contentHash
+    ) {
+        Objects.requireNonNull(configId, "configId");
+        Objects.requireNonNull(holder, "holder");
+        Objects.requireNonNull(transport, "transport");
+        Objects.requireNonNull(contentHash, "contentHash");
+        return new ReloadPropagator(configId, holder, transport, contentHash);
+    }
+
+    /**
+     * Starts propagating the reloads of a holder loaded from a file shared by
+     * every node, identifying its content by the SHA-256 digest of the file.
+     *
+     * <p>For a holder created by {@link ReloadableConfiguration}, the digest is
+     * taken of the bytes each load read, see
+     * {@link ReloadableConfiguration#sourceDigests(ReloadableHolder)}. Loads
+     * whose content is unknown because the file was edited while it was read
+     * are not announced; the reload of the edit is. Any other holder is
+     * identified by digesting the file once it published a value, which may
+     * already describe a later edit.</p>
+     *
+     * @param    configId  the identifier of the configuration, the same on every node
+     * @param    holder    the holder to keep in step
+     * @param    transport the transport connecting the nodes
+     * @param    source    the file the holder is loaded from
+     * @param    <T>       the type of the held value
+     * @return   the propagator, which stops propagating once closed
+     */
+    public static <T> ReloadPropagator attach(
+            final String configId,
+            final ReloadableHolder<T> holder,
+            final ReloadTransport transport,
+            final Path source
+    ) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(configId, "configId");
+        Objects.requireNonNull(holder, "holder");
+        Objects.requireNonNull(transport, "transport");
+        final Function<Object, @Nullable String> digests = ReloadableConfiguration.sourceDigests(holder)
+                .orElse(value -> sha256(source));
+        return new ReloadPropagator(configId, holder, transport, digests);
+    }
+
+    /**
+     * Returns the generation of the latest notice sent or accepted.
+     *
+     * @return   the current generation, {@code 0} before any notice
+     */
+    public synchronized long generation() {
+        return this.generation;
+    }
+
+    /**
+     * Stops sending and receiving notices for the holder.
+     */
+    @Override
+    public void close() {
+        this.reloads.unsubscribe();
+        this.notices.unsubscribe();
+    }
+
+    private void loaded(final Object value) {
+        final @Nullable String hash = this.contentHash.apply(value);
+        final ChangeNotice notice;
+        synchronized (this) {
+            if (hash == null) {
+                // Unknown content is neither announced nor compared with notices, which reload it.
+                this.loadedHash = null;
+                return;
+            }
+            if (hash.equals(this.loadedHash)) {
+                return;
+            }
+            this.loadedHash = hash;
+            // Content matching the notice that triggered this reload is already known to the network.
+            if (hash.equals(this.expectedHash)) {
+                this.expectedHash = null;
+                return;
+            }
+            this.generation++;
+            notice = new ChangeNotice(this.configId, this.generation, hash);
+        }
+        this.transport.publish(notice);
+    }
+
+    private void received(final ChangeNotice notice) {
+        if (!notice.configId().equals(this.configId)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (notice.generation() < this.generation) {
+                return;
+            }
+            this.generation = notice.generation();
+            // Before the first reload the loaded content is unknown, since the source may have changed since.
+            if (notice.contentHash().equals(this.loadedHash)) {
+                return;
+            }
+            this.expectedHash = notice.contentHash();
+        }
+
+        this.holder.reloadAsync().whenComplete((value, failure) -> {
+            if (failure != null) {
+                LOGGER.error("Failed to reload {} after a change on another node", this.configId, failure);
+            }
+        });
+    }
+
+    // Hashes the file content, treating a missing file as empty content.
+    private static String sha256(final Path file) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchFileException exception) {
+            return EMPTY_HASH;
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
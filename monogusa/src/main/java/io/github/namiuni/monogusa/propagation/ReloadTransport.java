@@ -0,0 +1,96 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import io.github.namiuni.monogusa.common.Subscription;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Carries {@link ChangeNotice}s between the nodes of a network.
+ *
+ * <p>Implementations only need to move notices around; deciding whether to
+ * reload is left to {@link ReloadPropagator}. Delivery may be lossy, duplicated
+ * or reordered, and a transport may deliver a node's own notices back to it.
+ * Messaging channels such as plugin messages or Redis pub/sub can be adapted
+ * by sending {@link ChangeNotice#encode()} and decoding received payloads.</p>
+ */
+@NullMarked
+public interface ReloadTransport extends AutoCloseable {
+
+    /**
+     * Creates an in-memory transport delivering every published notice to all
+     * of its receivers, including those of the publishing node.
+     *
+     * <p>Propagators attached to the same instance behave as separate nodes,
+     * which is mostly useful in tests.</p>
+     *
+     * @return   a new loopback transport
+     */
+    static ReloadTransport loopback() {
+        return new LoopbackTransport();
+    }
+
+    /**
+     * Creates a transport exchanging notices over Unix domain sockets, for
+     * nodes running on the same host.
+     *
+     * <p>Notices are sent to every peer and received on the bound socket file,
+     * which only processes allowed to access the file can connect to. Notices
+     * reach a listening peer in order, but are lost for peers that are not
+     * running or cannot be connected to, and are not sent again once they
+     * start; such peers catch up with the next change, or by reloading when
+     * they start.</p>
+     *
+     * @param    address the socket file to receive notices on
+     * @param    peers   the socket files of the other nodes
+     * @return   a new socket transport
+     * @throws   IOException if the socket cannot be bound, or if another node is listening on the address
+     */
+    static ReloadTransport socket(final Path address, final Collection<Path> peers) throws IOException {
+        return SocketTransport.bind(address, peers);
+    }
+
+    /**
+     * Sends a notice to the other nodes.
+     *
+     * @param    notice the notice to send
+     */
+    void publish(ChangeNotice notice);
+
+    /**
+     * Registers a receiver for notices arriving from other nodes.
+     *
+     * <p>Receivers may be called on a transport thread and should return quickly.</p>
+     *
+     * @param    receiver the receiver to register
+     * @return   a handle removing the receiver again
+     */
+    Subscription subscribe(Consumer<? super ChangeNotice> receiver);
+
+    /**
+     * Stops the transport. Notices are no longer sent nor received afterwards.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,271 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import io.github.namiuni.monogusa.common.Subscription;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A transport sending each notice as a length-prefixed frame over Unix domain
+ * sockets to a fixed set of peers on the same host.
+ *
+ * <p>Every node listens on its own socket file and keeps one connection to
+ * each peer, opened on first use and again after it broke. A notice that
+ * cannot be sent because a peer is not listening is dropped.</p>
+ */
+@NullMarked
+final class SocketTransport implements ReloadTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocketTransport.class.getSimpleName());
+    private static final int MAX_FRAME_SIZE = 1 << 18;
+
+    private final ServerSocketChannel server;
+    private final Path address;
+    private final List<Peer> peers;
+    private final List<Consumer<? super ChangeNotice>> receivers = new CopyOnWriteArrayList<>();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private SocketTransport(final ServerSocketChannel server, final Path address, final List<Peer> peers) {
+        this.server = server;
+        this.address = address;
+        this.peers = peers;
+        this.thread = Thread.ofVirtual()
+                .name("monogusa-reload-transport")
+                .unstarted(this::accept);
+    }
+
+    /**
+     * Binds a transport and starts receiving notices.
+     *
+     * <p>A socket file left behind by a node that is no longer running is
+     * replaced.</p>
+     *
+     * @param    address the socket file to receive notices on
+     * @param    peers   the socket files of the other nodes
+     * @return   the started transport
+     * @throws   IOException if the socket cannot be bound, or if another node is listening on the address
+     */
+    static SocketTransport bind(final Path address, final Collection<Path> peers) throws IOException {
+        final List<Peer> targets = peers.stream().map(peer -> new Peer(UnixDomainSocketAddress.of(peer))).toList();
+        final UnixDomainSocketAddress local = UnixDomainSocketAddress.of(address);
+        if (SocketTransport.listening(local)) {
+            throw new IOException("Another node is listening on " + address);
+        }
+        Files.deleteIfExists(address);
+        final ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(local);
+        } catch (final IOException exception) {
+            server.close();
+            throw exception;
+        }
+        final SocketTransport transport = new SocketTransport(server, address, targets);
+        transport.thread.start();
+        return transport;
+    }
+
+    @Override
+    public void publish(final ChangeNotice notice) {
+        if (this.closed) {
+            return;
+        }
+        final byte[] bytes = notice.encode();
+        final ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+        for (final Peer peer : this.peers) {
+            peer.send(frame.duplicate().flip());
+        }
+    }
+
+    @Override
+    public Subscription subscribe(final Consumer<? super ChangeNotice> receiver) {
+        final Consumer<? super ChangeNotice> registration = receiver::accept;
+        this.receivers.add(registration);
+        return () -> this.receivers.remove(registration);
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.receivers.clear();
+        try {
+            this.server.close();
+            for (final SocketChannel connection : this.connections) {
+                connection.close();
+            }
+            for (final Peer peer : this.peers) {
+                peer.close();
+            }
+            Files.deleteIfExists(this.address);
+        } catch (final IOException exception) {
+            LOGGER.warn("Failed to close the reload transport", exception);
+        }
+    }
+
+    private void accept() {
+        while (true) {
+            final SocketChannel connection;
+            try {
+                connection = this.server.accept();
+            } catch (final ClosedChannelException exception) {
+                return;
+            } catch (final IOException exception) {
+                LOGGER.warn("Failed to accept a reload transport connection", exception);
+                continue;
+            }
+            this.connections.add(connection);
+            Thread.ofVirtual().name("monogusa-reload-transport").start(() -> this.receive(connection));
+        }
+    }
+
+    private void receive(final SocketChannel connection) {
+        final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        try (connection) {
+            while (SocketTransport.readFully(connection, length.clear())) {
+                final int size = length.flip().getInt();
+                if (size <= 0 || size > MAX_FRAME_SIZE) {
+                    LOGGER.warn("Closing reload transport connection after a frame of {} bytes", size);
+                    return;
+                }
+                final ByteBuffer frame = ByteBuffer.allocate(size);
+                if (!SocketTransport.readFully(connection, frame)) {
+                    return;
+                }
+                this.deliver(frame.array());
+            }
+        } catch (final AsynchronousCloseException exception) {
+            // Closed by close().
+        } catch (final IOException exception) {
+            if (!this.closed) {
+                LOGGER.debug("Reload transport connection failed", exception);
+            }
+        } finally {
+            this.connections.remove(connection);
+        }
+    }
+
+    private void deliver(final byte[] bytes) {
+        final ChangeNotice notice;
+        try {
+            notice = ChangeNotice.decode(bytes);
+        } catch (final IllegalArgumentException exception) {
+            LOGGER.warn("Discarding malformed change notice", exception);
+            return;
+        }
+
+        for (final Consumer<? super ChangeNotice> receiver : this.receivers) {
+            try {
+                receiver.accept(notice);
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Failed to handle change notice {}", notice, exception);
+            }
+        }
+    }
+
+    @SuppressWarnings("try")
+    private static boolean listening(final UnixDomainSocketAddress address) {
+        try (SocketChannel ignored = SocketChannel.open(address)) {
+            return true;
+        } catch (final IOException exception) {
+            return false;
+        }
+    }
+
+    // False if the peer closed the connection before the buffer was filled.
+    private static boolean readFully(final SocketChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The connection to one peer, shared by the threads publishing notices.
+    private static final class Peer {
+
+        private final UnixDomainSocketAddress address;
+        private @Nullable SocketChannel channel;
+
+        Peer(final UnixDomainSocketAddress address) {
+            this.address = address;
+        }
+
+        synchronized void send(final ByteBuffer frame) {
+            // A kept connection may have broken since, for example because the peer restarted; retry once on a new one.
+            final boolean reused = this.channel != null;
+            try {
+                this.write(frame);
+            } catch (final IOException exception) {
+                this.close();
+                if (!reused) {
+                    LOGGER.debug("Dropping change notice for {}, which is not listening", this.address, exception);
+                    return;
+                }
+                try {
+                    this.write(frame.rewind());
+                } catch (final IOException retry) {
+                    LOGGER.debug("Dropping change notice for {}, which is not listening", this.address, retry);
+                    this.close();
+                }
+            }
+        }
+
+        private void write(final ByteBuffer frame) throws IOException {
+            if (this.channel == null) {
+                this.channel = SocketChannel.open(this.address);
+            }
+            while (frame.hasRemaining()) {
+                this.channel.write(frame);
+            }
+        }
+
+        synchronized void close() {
+            if (this.channel != null) {
+                try {
+                    this.channel.close();
+                } catch (final IOException exception) {
+                    LOGGER.debug("Failed to close the connection to {}", this.address, exception);
+                }
+                this.channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Reload propagation helper.
+ */
+@NullMarked
+package io.github.namiuni.monogusa.propagation;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,68 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link ConstantHandle} follows the reloads of its holder.
+ */
+final class ConstantHandleTest {
+
+    @Test
+    void followsReloads() throws Throwable {
+        final AtomicInteger loads = new AtomicInteger();
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(loads::incrementAndGet);
+        final MethodHandle handle = holder.constant(int.class, value -> value * 10).handle();
+
+        assertEquals(10, (int) handle.invokeExact());
+        holder.reload();
+
+        assertEquals(20, (int) handle.invokeExact());
+    }
+
+    @Test
+    void rejectsNullForPrimitiveType() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(loads::incrementAndGet);
+        final ConstantHandle<Boolean> constant = holder.constant(boolean.class, value -> value == 1 ? null : true);
+
+        final NullPointerException exception = assertThrows(NullPointerException.class, constant::get);
+        assertTrue(exception.getMessage().contains("boolean"), exception.getMessage());
+        holder.reload();
+
+        assertTrue(constant.get());
+    }
+
+    @Test
+    void acceptsNullForReferenceType() {
+        final ReloadableHolder<String> holder = ReloadableHolder.simple(() -> "value");
+        final ConstantHandle<String> constant = holder.constant(String.class, value -> null);
+
+        assertNull(constant.get());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests how {@link ReloadableHolder} coalesces reloads and orders the values it publishes.
+ */
+final class ReloadableHolderTest {
+
+    private static final long TIMEOUT_SECONDS = 5L;
+
+    @Test
+    void coalescesReloadsRequestedWhileLoading() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(() -> {
+            final int load = loads.incrementAndGet();
+            if (load == 2) {
+                loading.countDown();
+                ReloadableHolderTest.await(release);
+            }
+            return load;
+        });
+
+        final CompletableFuture<Integer> running = holder.reloadAsync();
+        assertTrue(loading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        final List<CompletableFuture<Integer>> requested = List.of(holder.reloadAsync(), holder.reloadAsync(), holder.reloadAsync());
+        release.countDown();
+
+        assertEquals(2, running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (final CompletableFuture<Integer> future : requested) {
+            assertEquals(3, future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(3, loads.get());
+        assertEquals(3, holder.get());
+    }
+
+    @Test
+    void blockingReloadWaitsForAFollowUpLoad() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(() -> {
+            final int load = loads.incrementAndGet();
+            if (load == 2) {
+                loading.countDown();
+                ReloadableHolderTest.await(release);
+            }
+            return load;
+        });
+
+        holder.reloadAsync();
+        assertTrue(loading.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        final CompletableFuture<Void> reload = CompletableFuture.runAsync(holder::reload);
+        release.countDown();
+        reload.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // The load running when reload() was called may have read the source too early.
+        assertEquals(3, holder.get());
+    }
+
+    @Test
+    void olderLoadNeverReplacesNewerValue() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(loads::incrementAndGet);
+        final List<Integer> published = new CopyOnWriteArrayList<>();
+        holder.subscribe((previous, current) -> published.add(current));
+        final List<Runnable> delayed = new ArrayList<>();
+        final Executor direct = Runnable::run;
+
+        final CompletableFuture<Integer> older = holder.reloadAsync(direct, delayed::add);
+        final CompletableFuture<Integer> newer = holder.reloadAsync(direct, direct);
+        assertEquals(3, newer.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        delayed.forEach(Runnable::run);
+
+        assertEquals(3, older.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(3, holder.get());
+        assertEquals(List.of(3), published);
+    }
+
+    @Test
+    void heldValueNeverMovesBackwards() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final ReloadableHolder<Integer> holder = ReloadableHolder.simple(loads::incrementAndGet);
+        final List<String> violations = new CopyOnWriteArrayList<>();
+        holder.subscribe((previous, current) -> {
+            if (current <= previous) {
+                violations.add(previous + " -> " + current);
+            }
+        });
+        final AtomicBoolean reloading = new AtomicBoolean(true);
+        final Thread reader = Thread.ofPlatform().start(() -> {
+            int last = holder.get();
+            while (reloading.get()) {
+                final int read = holder.get();
+                if (read < last) {
+                    violations.add("read " + read + " after " + last);
+                }
+                last = read;
+            }
+        });
+
+        final List<CompletableFuture<Integer>> reloads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            reloads.add(holder.reloadAsync());
+        }
+        CompletableFuture.allOf(reloads.toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        reloading.set(false);
+        reader.join();
+
+        assertEquals(List.of(), violations);
+        assertEquals(loads.get(), holder.get());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the test");
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
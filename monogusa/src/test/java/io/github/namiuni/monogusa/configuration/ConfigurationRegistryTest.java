@@ -0,0 +1,86 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadMetrics;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.hocon.HoconConfigurationLoader;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link ConfigurationRegistry} loads its configurations and rejects options it cannot apply.
+ */
+final class ConfigurationRegistryTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void loadsAndReloadsRegisteredConfigurations() throws IOException {
+        final Path file = this.directory.resolve("settings.conf");
+        Files.writeString(file, "count = 1\n");
+        final ConfigurationRegistry registry = ConfigurationRegistry.create();
+        final Supplier<Settings> settings = registry.register("settings", this.builder(file));
+
+        registry.loadAll();
+        assertEquals(1, settings.get().count);
+        Files.writeString(file, "count = 2\n");
+        registry.reloadAll();
+
+        assertEquals(2, settings.get().count);
+    }
+
+    @Test
+    void rejectsOptionsBoundToAHolder() {
+        final Path file = this.directory.resolve("settings.conf");
+        final ConfigurationRegistry registry = ConfigurationRegistry.create();
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> registry.register("settings", this.builder(file)
+                .watch(Duration.ofMillis(100L))
+                .onChange(NodePath.path("count"), (previous, current) -> { })
+                .metrics(ReloadMetrics.counting())));
+
+        assertTrue(exception.getMessage().endsWith("watch, onChange, metrics"), exception.getMessage());
+    }
+
+    private ReloadableConfiguration.ILoadable<Settings> builder(final Path file) {
+        return ReloadableConfiguration.builder()
+            .loader(HoconConfigurationLoader.builder().path(file).build())
+            .raw(Settings.class)
+            .path(file);
+    }
+
+    @ConfigSerializable
+    static final class Settings {
+        int count;
+    }
+}
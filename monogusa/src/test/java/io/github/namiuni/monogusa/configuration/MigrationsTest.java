@@ -0,0 +1,103 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import io.github.namiuni.monogusa.common.ReloadMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.transformation.ConfigurationTransformation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link Migrations} runs the migrations a tree needs and stamps it with the latest version.
+ */
+final class MigrationsTest {
+
+    private static final Object[] VERSION_KEY = {"version", };
+
+    private final List<Integer> applied = new ArrayList<>();
+
+    @Test
+    void stampsEmptyTreeWithoutMigrating() throws ConfigurateException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+
+        assertTrue(this.migrations().apply(node));
+        assertEquals(2, node.node(VERSION_KEY).getInt());
+        assertEquals(List.of(), this.applied);
+    }
+
+    @Test
+    void migratesOlderTreeAndStampsIt() throws ConfigurateException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node(VERSION_KEY).set(1);
+        node.node("old-name").set("value");
+
+        assertTrue(this.migrations().apply(node));
+        assertEquals(List.of(2), this.applied);
+        assertEquals(2, node.node(VERSION_KEY).getInt());
+        assertEquals("value", node.node("new-name").getString());
+        assertTrue(node.node("old-name").virtual());
+    }
+
+    @Test
+    void migratesUnversionedTreeFromTheStart() throws ConfigurateException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("old-name").set("value");
+
+        assertTrue(this.migrations().apply(node));
+        assertEquals(List.of(1, 2), this.applied);
+        assertEquals(2, node.node(VERSION_KEY).getInt());
+    }
+
+    @Test
+    void leavesCurrentTreeUntouched() throws ConfigurateException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node(VERSION_KEY).set(2);
+        node.node("old-name").set("value");
+        final ConfigurationNode before = node.copy();
+
+        assertFalse(this.migrations().apply(node));
+        assertEquals(List.of(), this.applied);
+        assertTrue(ConfigurationNodes.equivalent(before, node));
+    }
+
+    private Migrations migrations() {
+        final SortedMap<Integer, ConfigurationTransformation> versions = new TreeMap<>();
+        versions.put(1, node -> this.applied.add(1));
+        versions.put(2, node -> {
+            this.applied.add(2);
+            final ConfigurationNode old = node.node("old-name");
+            if (!old.virtual()) {
+                node.node("new-name").from(old);
+                node.removeChild("old-name");
+            }
+        });
+        return new Migrations(MigrationsTest.class, VERSION_KEY, versions, ReloadMetrics.noop());
+    }
+}
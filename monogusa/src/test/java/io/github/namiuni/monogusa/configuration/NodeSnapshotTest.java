@@ -0,0 +1,138 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.configurate.CommentedConfigurationNode;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.hocon.HoconConfigurationLoader;
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link NodeSnapshot} decodes the tree it encoded and is discarded once stale.
+ */
+final class NodeSnapshotTest {
+
+    private static final String CONTENT = """
+            # The name
+            name = "monogusa"
+            count = 3
+            ratio = 0.5
+            enabled = true
+            list = [1, 2, 3]
+            section {
+                # nested
+                key = value
+            }
+            """;
+
+    @TempDir
+    private Path directory;
+    private Path source;
+    private HoconConfigurationLoader loader;
+
+    @BeforeEach
+    void writeSource() throws IOException {
+        this.source = this.directory.resolve("settings.conf");
+        Files.writeString(this.source, CONTENT, StandardCharsets.UTF_8);
+        this.loader = HoconConfigurationLoader.builder().path(this.source).build();
+    }
+
+    @Test
+    void decodesTheTreeItEncoded() throws IOException {
+        final ConfigurationNode parsed = this.snapshot(Settings.class);
+
+        final @Nullable ConfigurationNode decoded = new NodeSnapshot(this.source, Settings.class).read(this.loader, this.loader.defaultOptions());
+        assertNotNull(decoded);
+        assertTrue(ConfigurationNodes.equivalent(parsed, decoded));
+        assertEquals("nested", ((CommentedConfigurationNode) decoded).node("section", "key").comment());
+        assertEquals(List.of(1, 2, 3), decoded.node("list").getList(Integer.class));
+    }
+
+    @Test
+    void missesWithoutSnapshot() {
+        assertNull(new NodeSnapshot(this.source, Settings.class).read(this.loader, this.loader.defaultOptions()));
+    }
+
+    @Test
+    void missesOnceTheSourceChanged() throws IOException {
+        this.snapshot(Settings.class);
+        Files.writeString(this.source, CONTENT.replace("count = 3", "count = 4"), StandardCharsets.UTF_8);
+
+        assertNull(new NodeSnapshot(this.source, Settings.class).read(this.loader, this.loader.defaultOptions()));
+    }
+
+    @Test
+    void missesOnceTheSchemaChanged() throws IOException {
+        this.snapshot(Settings.class);
+
+        assertNull(new NodeSnapshot(this.source, Renamed.class).read(this.loader, this.loader.defaultOptions()));
+    }
+
+    @Test
+    void missesWhenCorrupted() throws IOException {
+        this.snapshot(Settings.class);
+        final Path file = this.source.resolveSibling(this.source.getFileName() + ".snapshot");
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertNull(new NodeSnapshot(this.source, Settings.class).read(this.loader, this.loader.defaultOptions()));
+    }
+
+    // Parses the source and writes its snapshot, waiting for the background write.
+    private ConfigurationNode snapshot(final Class<?> type) throws IOException {
+        final NodeSnapshot snapshot = new NodeSnapshot(this.source, type);
+        final NodeSnapshot.SourceKey key = Objects.requireNonNull(snapshot.capture());
+        final ConfigurationNode parsed = this.loader.load();
+        snapshot.write(key, parsed);
+        ConfigurationWriter.flush();
+        return parsed;
+    }
+
+    @ConfigSerializable
+    static final class Settings {
+        String name = "";
+        int count;
+        double ratio;
+        boolean enabled;
+        List<Integer> list = List.of();
+    }
+
+    @ConfigSerializable
+    static final class Renamed {
+        String title = "";
+        int count;
+    }
+}
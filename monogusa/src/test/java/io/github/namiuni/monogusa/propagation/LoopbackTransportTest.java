@@ -0,0 +1,95 @@
+/*
+ * monogusa
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.namiuni.monogusa.propagation;
+
+import io.github.namiuni.monogusa.common.Subscription;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the {@link LoopbackTransport} delivers notices to every receiver until it is closed.
+ */
+final class LoopbackTransportTest {
+
+    private static final ChangeNotice NOTICE = new ChangeNotice("settings", 1L, "hash");
+
+    @Test
+    void deliversToEveryReceiverIncludingThePublisher() {
+        try (ReloadTransport transport = ReloadTransport.loopback()) {
+            final List<ChangeNotice> first = new CopyOnWriteArrayList<>();
+            final List<ChangeNotice> second = new CopyOnWriteArrayList<>();
+            transport.subscribe(first::add);
+            transport.subscribe(second::add);
+
+            transport.publish(NOTICE);
+
+            assertEquals(List.of(NOTICE), first);
+            assertEquals(List.of(NOTICE), second);
+        }
+    }
+
+    @Test
+    void failingReceiverDoesNotStopDelivery() {
+        try (ReloadTransport transport = ReloadTransport.loopback()) {
+            final List<ChangeNotice> received = new CopyOnWriteArrayList<>();
+            transport.subscribe(notice -> {
+                throw new IllegalStateException("Expected by the test");
+            });
+            transport.subscribe(received::add);
+
+            transport.publish(NOTICE);
+
+            assertEquals(List.of(NOTICE), received);
+        }
+    }
+
+    @Test
+    void unsubscribedReceiverIsNoLongerCalled() {
+        try (ReloadTransport transport = ReloadTransport.loopback()) {
+            final List<ChangeNotice> received = new CopyOnWriteArrayList<>();
+            final Subscription subscription = transport.subscribe(received::add);
+            subscription.unsubscribe();
+
+            transport.publish(NOTICE);
+
+            assertEquals(List.of(), received);
+        }
+    }
+
+    @Test
+    void closedTransportDeliversNothing() {
+        final ReloadTransport transport = ReloadTransport.loopback();
+        final List<ChangeNotice> received = new CopyOnWriteArrayList<>();
+        transport.subscribe(received::add);
+        transport.close();
+
+        transport.publish(NOTICE);
+
+        assertEquals(List.of(), received);
+    }
+
+    @Test
+    void noticesSurviveEncoding() {
+        assertEquals(NOTICE, ChangeNotice.decode(NOTICE.encode()));
+    }
+}
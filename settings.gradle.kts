@@ -17,7 +17,9 @@ pluginManagement {
 }
 
 include("monogusa")
+include("monogusa-processor")
 include("monogusa-example-paper")
+include("monogusa-benchmarks")
 
 plugins {
     id("org.gradle.toolchains.foojay-resolver-convention") version "1.0.0"